@@ -10,12 +10,15 @@ const CommentSection = ({ postId, postOwnerId, onCommentAdded, onCommentDeleted
     const [loading, setLoading] = useState(true);
     const [newComment, setNewComment] = useState('');
     const [submitting, setSubmitting] = useState(false);
+    const [nextCursor, setNextCursor] = useState(null);
+    const [loadingMore, setLoadingMore] = useState(false);
 
     useEffect(() => {
         const fetchComments = async () => {
             try {
-                const response = await api.get(`/posts/${postId}/comments`);
-                setComments(response.data);
+                const response = await api.get(`/posts/${postId}/comments?limit=20`);
+                setComments(response.data.items);
+                setNextCursor(response.data.nextCursor);
             } catch (error) {
                 console.error("Failed to load comments", error);
             } finally {
@@ -25,6 +28,23 @@ const CommentSection = ({ postId, postOwnerId, onCommentAdded, onCommentDeleted
         fetchComments();
     }, [postId]);
 
+    const loadOlder = async () => {
+        if (!nextCursor) return;
+        setLoadingMore(true);
+        try {
+            const response = await api.get(`/posts/${postId}/comments?limit=20&cursor=${encodeURIComponent(nextCursor)}`);
+            setComments(prev => {
+                const existingIds = new Set(prev.map(c => c.id));
+                return [...prev, ...response.data.items.filter(c => !existingIds.has(c.id))];
+            });
+            setNextCursor(response.data.nextCursor);
+        } catch (error) {
+            console.error("Failed to load comments", error);
+        } finally {
+            setLoadingMore(false);
+        }
+    };
+
     const handleSubmit = async (e) => {
         e.preventDefault();
         if (!newComment.trim()) return;
@@ -161,6 +181,11 @@ const CommentSection = ({ postId, postOwnerId, onCommentAdded, onCommentDeleted
                         );
                     })
                 )}
+                {nextCursor && (
+                    <button onClick={loadOlder} disabled={loadingMore} className="w-full text-xs font-bold text-indigo-600 hover:text-indigo-800 py-2 disabled:opacity-50">
+                        {loadingMore ? 'Loading...' : 'Load older comments'}
+                    </button>
+                )}
             </div>
         </div>
     );
@@ -58,22 +58,17 @@ const Navbar = () => {
             }
 
             setLoadingSuggestions(true);
-            const lowerQuery = searchQuery.toLowerCase();
 
             try {
                 const [usersRes, plansRes, postsRes] = await Promise.allSettled([
                     api.get(`/users/search?q=${searchQuery}`),
                     getPublicPlans(searchQuery, 'All', 'All'),
-                    api.get(`/posts?page=0&size=50`)
+                    api.get(`/posts/search?query=${encodeURIComponent(searchQuery)}&size=3`)
                 ]);
 
                 let filteredPosts = [];
                 if (postsRes.status === 'fulfilled') {
-                    const allPosts = postsRes.value.data || [];
-                    filteredPosts = allPosts.filter(p =>
-                        p.description?.toLowerCase().includes(lowerQuery) ||
-                        p.user?.username?.toLowerCase().includes(lowerQuery)
-                    ).slice(0, 3);
+                    filteredPosts = postsRes.value.data || [];
                 }
 
                 setSuggestions({
@@ -47,20 +47,21 @@ const PostCard = ({ post, onOpenVideo, onDeleteSuccess }) => {
     const postUser = post.user || {};
     const displayUser = displayPost.user || {};
     const mediaUrls = displayPost.mediaUrls?.length > 0 ? displayPost.mediaUrls : (displayPost.imageUrl ? [displayPost.imageUrl] : []);
-    const linkedPlan = displayPost.learningPlan;
-    const commentCount = post.comments?.length || 0;
+    // Derivatives for the card itself (the lightbox keeps the originals); fall back to the original
+    const cardUrl = (idx) => (mediaUrls.length > 1 ? displayPost.thumbUrls : displayPost.previewUrls)?.[idx] || mediaUrls[idx];
+    const linkedPlan = displayPost.learningPlanId ? { id: displayPost.learningPlanId, title: displayPost.learningPlanTitle } : null;
+    const commentCount = post.commentCount || 0;
     const repostCount = post.repostCount || 0;
 
     // --- INITIALIZE & CALCULATE STATS ---
     useEffect(() => {
-        if (post.reactions) {
-            const reactionValues = Object.values(post.reactions);
-            setTotalCount(reactionValues.length);
-            setMyReaction(post.reactions[currentUser?.id] || null);
-
-            // Calculate Top 3 Unique Icons for the display stack (e.g. 👍 ❤️ 💡)
-            const uniqueTypes = [...new Set(reactionValues)];
-            const topIcons = uniqueTypes.slice(0, 3).map(type => REACTION_CONFIG[type]?.icon || '👍');
+        if (post.reactionCounts) {
+            const counts = Object.entries(post.reactionCounts).filter(([, count]) => count > 0);
+            setTotalCount(counts.reduce((sum, [, count]) => sum + count, 0));
+            setMyReaction(post.myReaction || null);
+
+            // Top 3 most used reaction types for the display stack (e.g. 👍 ❤️ 💡)
+            const topIcons = counts.sort((a, b) => b[1] - a[1]).slice(0, 3).map(([type]) => REACTION_CONFIG[type]?.icon || '👍');
             setTopReactionIcons(topIcons);
         }
         setEditContent(post.description);
@@ -261,6 +262,14 @@ const PostCard = ({ post, onOpenVideo, onDeleteSuccess }) => {
                     )}
                 </div>
 
+                {/* Media still uploading (or failed); replaced by the post-status push */}
+                {post.status === 'PENDING' && (
+                    <div className="mx-4 mb-3 px-3 py-2 rounded-lg bg-slate-50 text-xs font-semibold text-slate-500 animate-pulse">Processing media…</div>
+                )}
+                {post.status === 'FAILED' && (
+                    <div className="mx-4 mb-3 px-3 py-2 rounded-lg bg-red-50 text-xs font-semibold text-red-500">Media upload failed. Only you can see this post.</div>
+                )}
+
                 {/* Media */}
                 {mediaUrls.length > 0 && (
                     <div className={`w-full overflow-hidden cursor-pointer ${mediaUrls.length > 1 ? 'grid grid-cols-2 gap-0.5 h-72' : ''}`} onClick={() => handleMediaClick(mediaUrls[0], 0)}>
@@ -271,7 +280,7 @@ const PostCard = ({ post, onOpenVideo, onDeleteSuccess }) => {
                                     {isVideo ? (
                                         <video src={url} className="w-full h-full object-cover" muted />
                                     ) : (
-                                        <img src={url} className="w-full h-full object-cover" />
+                                        <img src={cardUrl(idx)} className="w-full h-full object-cover" loading="lazy" />
                                     )}
                                 </div>
                             );
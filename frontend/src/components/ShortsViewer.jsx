@@ -42,11 +42,9 @@ const ShortsViewer = ({ posts, startIndex, onClose, onUpdatePost }) => {
 
     // --- RESET STATE ON VIDEO CHANGE ---
     useEffect(() => {
-        if (post && post.reactions) {
-            const counts = {};
-            Object.values(post.reactions).forEach(t => counts[t] = (counts[t] || 0) + 1);
-            setReactionCounts(counts);
-            setMyReaction(post.reactions[currentUser?.id] || null);
+        if (post) {
+            setReactionCounts(post.reactionCounts || {});
+            setMyReaction(post.myReaction || null);
         }
         setShowComments(false);
         setIsPlaying(true);
@@ -90,16 +88,14 @@ const ShortsViewer = ({ posts, startIndex, onClose, onUpdatePost }) => {
         const newReaction = type === oldReaction ? null : type;
         setMyReaction(newReaction);
 
-        setReactionCounts(prev => {
-            const newCounts = { ...prev };
-            if (oldReaction) newCounts[oldReaction] = Math.max(0, (newCounts[oldReaction] || 1) - 1);
-            if (newReaction) newCounts[newReaction] = (newCounts[newReaction] || 0) + 1;
-            return newCounts;
-        });
+        const newCounts = { ...reactionCounts };
+        if (oldReaction) newCounts[oldReaction] = Math.max(0, (newCounts[oldReaction] || 1) - 1);
+        if (newReaction) newCounts[newReaction] = (newCounts[newReaction] || 0) + 1;
+        setReactionCounts(newCounts);
 
         try {
             await api.post(`/posts/${post.id}/react?userId=${currentUser.id}&type=${type}`);
-            onUpdatePost(post.id, { ...post, reactions: { ...post.reactions, [currentUser.id]: newReaction } });
+            onUpdatePost(post.id, { ...post, myReaction: newReaction, reactionCounts: newCounts });
         } catch (error) { setMyReaction(oldReaction); }
     };
 
@@ -1,5 +1,7 @@
 import { useEffect, useState, useRef, useCallback } from 'react';
 import { Link } from 'react-router-dom';
+import SockJS from 'sockjs-client';
+import Stomp from 'stompjs';
 import api from '../services/api';
 import Navbar from '../components/Navbar';
 import PostCard from '../components/PostCard';
@@ -25,7 +27,8 @@ const HomeFeed = () => {
     const fileInputRef = useRef(null);
 
     const [activeTab, setActiveTab] = useState('global');
-    const [page, setPage] = useState(0);
+    const [cursor, setCursor] = useState(null);
+    const [nextCursor, setNextCursor] = useState(null);
     const [hasMore, setHasMore] = useState(true);
     const observer = useRef();
 
@@ -45,45 +48,67 @@ const HomeFeed = () => {
 
     useEffect(() => {
         setPosts([]);
-        setPage(0);
+        setCursor(null);
+        setNextCursor(null);
         setHasMore(true);
         setLoading(true);
     }, [activeTab]);
 
     const fetchPosts = useCallback(async () => {
-        if (!hasMore && page > 0) return;
+        if (!hasMore && cursor) return;
         try {
             setLoading(true);
-            const endpoint = activeTab === 'following'
-                ? `/posts/feed?userId=${user?.id}&page=${page}&size=10`
-                : `/posts?page=${page}&size=10`;
+            const cursorParam = cursor ? `&cursor=${encodeURIComponent(cursor)}` : '';
+            let endpoint;
+            if (activeTab === 'following') endpoint = `/posts/feed/cursor?userId=${user?.id}&size=10${cursorParam}`;
+            else if (activeTab === 'trending') endpoint = `/posts/trending?page=${cursor || 0}&size=10`;
+            else endpoint = `/posts/cursor?size=10${cursorParam}`;
 
             const response = await api.get(endpoint);
-            const newPosts = response.data;
+            // Trending is ranked by page number; the next page number doubles as its cursor
+            const page = activeTab === 'trending'
+                ? { items: response.data, nextCursor: response.data.length === 10 ? String(Number(cursor || 0) + 1) : null }
+                : response.data;
+            const newPosts = page.items;
             setPosts(prev => {
-                if (page === 0) return newPosts;
+                if (!cursor) return newPosts;
                 const existingIds = new Set(prev.map(p => p.id));
                 const uniqueNewPosts = newPosts.filter(p => !existingIds.has(p.id));
                 return [...prev, ...uniqueNewPosts];
             });
-            setHasMore(newPosts.length === 10);
+            setNextCursor(page.nextCursor);
+            setHasMore(!!page.nextCursor);
         } catch (error) {
             console.error("Error fetching posts:", error);
         } finally {
             setLoading(false);
         }
-    }, [activeTab, page, user?.id]);
+    }, [activeTab, cursor, user?.id]);
 
     useEffect(() => { fetchPosts(); }, [fetchPosts]);
 
+    // Posts with media are created PENDING; the server pushes the PUBLISHED (or FAILED) item when uploads finish
+    useEffect(() => {
+        if (!user) return;
+        const client = Stomp.over(new SockJS('http://localhost:8080/ws'));
+        client.debug = null;
+        client.connect({}, () => {
+            client.subscribe(`/user/${user.id}/queue/post-status`, (payload) => {
+                const updated = JSON.parse(payload.body);
+                setPosts(prev => prev.map(p => (p.id === updated.id ? updated : p)));
+            });
+        }, console.error);
+        return () => { if (client.connected) client.disconnect(); };
+    }, [user]);
+
     const lastPostRef = useCallback(node => {
         if (loading) return;
         if (observer.current) observer.current.disconnect();
         observer.current = new IntersectionObserver(entries => {
-            if (entries[0].isIntersecting && hasMore) setPage(prev => prev + 1);
+            if (entries[0].isIntersecting && hasMore && nextCursor) setCursor(nextCursor);
         });
         if (node) observer.current.observe(node);
-    }, [loading, hasMore]);
+    }, [loading, hasMore, nextCursor]);
 
     const handleFileSelect = (e) => {
         const files = Array.from(e.target.files);
@@ -214,6 +239,7 @@ const HomeFeed = () => {
                         <div className="flex border-b border-slate-200 mb-6 sticky top-16 bg-slate-50/95 backdrop-blur z-30 pt-2">
                             <button onClick={() => setActiveTab('global')} className={`flex-1 pb-3 text-sm font-bold border-b-2 transition-colors ${activeTab === 'global' ? 'border-indigo-600 text-indigo-600' : 'border-transparent text-slate-500 hover:text-slate-700'}`}>For You</button>
                             <button onClick={() => setActiveTab('following')} className={`flex-1 pb-3 text-sm font-bold border-b-2 transition-colors ${activeTab === 'following' ? 'border-indigo-600 text-indigo-600' : 'border-transparent text-slate-500 hover:text-slate-700'}`}>Following</button>
+                            <button onClick={() => setActiveTab('trending')} className={`flex-1 pb-3 text-sm font-bold border-b-2 transition-colors ${activeTab === 'trending' ? 'border-indigo-600 text-indigo-600' : 'border-transparent text-slate-500 hover:text-slate-700'}`}>Trending</button>
                         </div>
                         <div className="space-y-6">
                             {posts.map((post, index) => (
@@ -5,15 +5,23 @@ import Navbar from '../components/Navbar';
 import LoadingSpinner from '../components/LoadingSpinner';
 import { useAuth } from '../context/useAuth';
 
+const PERIODS = [
+    { key: 'all', label: 'All-Time' },
+    { key: 'weekly', label: 'Weekly' },
+    { key: 'monthly', label: 'Monthly' },
+];
+
 const Leaderboard = () => {
     const { user: currentUser } = useAuth();
     const [users, setUsers] = useState([]);
     const [loading, setLoading] = useState(true);
+    const [period, setPeriod] = useState('all');
 
     useEffect(() => {
         const fetchLeaderboard = async () => {
             try {
-                const res = await api.get('/users/leaderboard');
+                const path = period === 'all' ? '/users/leaderboard' : `/users/leaderboard/${period}`;
+                const res = await api.get(path);
                 setUsers(res.data);
             } catch (error) {
                 console.error("Failed to load leaderboard");
@@ -22,7 +30,7 @@ const Leaderboard = () => {
             }
         };
         fetchLeaderboard();
-    }, []);
+    }, [period]);
 
     if (loading) return <div className="min-h-screen bg-slate-50 flex items-center justify-center"><LoadingSpinner /></div>;
 
@@ -43,12 +51,23 @@ const Leaderboard = () => {
 
                 <div className="max-w-4xl mx-auto px-4 text-center relative z-10">
                     <span className="inline-block py-1 px-3 rounded-full bg-indigo-500/20 border border-indigo-500/30 text-indigo-300 text-xs font-bold uppercase tracking-wider mb-4">
-                        Weekly Ranking
+                        {PERIODS.find(p => p.key === period).label} Ranking
                     </span>
                     <h1 className="text-4xl md:text-5xl font-black text-white tracking-tight mb-2">
                         Global Leaderboard
                     </h1>
                     <p className="text-slate-400 font-medium">Top learners making an impact.</p>
+                    <div className="mt-6 inline-flex bg-white/10 rounded-full p-1">
+                        {PERIODS.map(p => (
+                            <button
+                                key={p.key}
+                                onClick={() => setPeriod(p.key)}
+                                className={`px-4 py-1.5 rounded-full text-xs font-bold transition-colors ${period === p.key ? 'bg-white text-slate-900' : 'text-slate-300 hover:text-white'}`}
+                            >
+                                {p.label}
+                            </button>
+                        ))}
+                    </div>
                 </div>
             </div>
 
@@ -75,13 +94,13 @@ const Leaderboard = () => {
                     </div>
 
                     <div className="divide-y divide-slate-50">
-                        {runnersUp.map((user, index) => (
+                        {runnersUp.map((user) => (
                             <div
                                 key={user.id}
                                 className={`flex items-center p-4 hover:bg-slate-50 transition-all group ${currentUser?.id === user.id ? 'bg-indigo-50/40' : ''}`}
                             >
                                 <div className="w-10 font-black text-slate-300 text-lg group-hover:text-indigo-300 transition-colors">
-                                    #{index + 4}
+                                    #{user.rank}
                                 </div>
 
                                 <Link to={`/profile/${user.id}`} className="flex items-center gap-3 flex-1 min-w-0">
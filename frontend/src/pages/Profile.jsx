@@ -116,7 +116,7 @@ const Profile = () => {
     const TypeButton = ({ type, icon, label, color }) => (
         <button type="button" onClick={() => setUpdateType(type)} className={`flex items-center gap-1.5 px-3 py-1.5 rounded-lg text-xs font-bold transition-all ${updateType === type ? `${color} shadow-sm transform scale-105` : 'bg-slate-50 text-slate-500 hover:bg-slate-100'}`}><span>{icon}</span> {label}</button>
     );
-    const badgeMap = { 'NOVICE': { icon: '🌱', label: 'Novice', bg: 'bg-green-100 text-green-700' }, 'APPRENTICE': { icon: '⚒️', label: 'Apprentice', bg: 'bg-blue-100 text-blue-700' }, 'MASTER': { icon: '👑', label: 'Master', bg: 'bg-amber-100 text-amber-700' }, 'SOCIALITE': { icon: '💬', label: 'Socialite', bg: 'bg-purple-100 text-purple-700' } };
+    const badgeMap = { 'NOVICE': { icon: '🌱', label: 'Novice', bg: 'bg-green-100 text-green-700' }, 'APPRENTICE': { icon: '⚒️', label: 'Apprentice', bg: 'bg-blue-100 text-blue-700' }, 'MASTER': { icon: '👑', label: 'Master', bg: 'bg-amber-100 text-amber-700' }, 'SOCIALITE': { icon: '💬', label: 'Socialite', bg: 'bg-purple-100 text-purple-700' }, 'AUTHOR': { icon: '✍️', label: 'Author', bg: 'bg-rose-100 text-rose-700' }, 'FINISHER': { icon: '🏁', label: 'Finisher', bg: 'bg-emerald-100 text-emerald-700' }, 'ON_FIRE': { icon: '🔥', label: 'On Fire', bg: 'bg-orange-100 text-orange-700' } };
     const xpPercent = (profileUser.xp || 0) % 100;
 
     return (
@@ -27,7 +27,7 @@ const Search = () => {
                 const [userRes, planRes, postRes] = await Promise.allSettled([
                     api.get(`/users/search?q=${encodeURIComponent(query)}`),
                     getPublicPlans(query, 'All', 'All'),
-                    api.get(`/posts?page=0&size=50`)
+                    api.get(`/posts/search?query=${encodeURIComponent(query)}&size=50`)
                 ]);
 
                 if (userRes.status === 'fulfilled') setPeople(userRes.value.data || []);
@@ -37,14 +37,7 @@ const Search = () => {
                 else setPlans([]);
 
                 if (postRes.status === 'fulfilled') {
-                    const allPosts = postRes.value.data || [];
-                    const lowerQuery = query.toLowerCase();
-                    const filteredPosts = allPosts.filter(p => {
-                        const descMatch = p.description && p.description.toLowerCase().includes(lowerQuery);
-                        const userMatch = p.user && p.user.username && p.user.username.toLowerCase().includes(lowerQuery);
-                        return descMatch || userMatch;
-                    });
-                    setPosts(filteredPosts);
+                    setPosts(postRes.value.data || []);
                 } else {
                     setPosts([]);
                 }
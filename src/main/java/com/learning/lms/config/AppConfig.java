@@ -1,6 +1,6 @@
 package com.learning.lms.config;
 
-import com.learning.lms.repository.UserRepository;
+import com.learning.lms.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -18,12 +18,13 @@ import org.springframework.security.crypto.password.PasswordEncoder;
 @RequiredArgsConstructor
 public class AppConfig {
 
-    private final UserRepository repository;
+    private final UserCache userCache;
 
+    // Runs for every JWT-authenticated request: served from the user L1 cache
     @Bean
     @Primary
     public UserDetailsService userDetailsService() {
-        return username -> repository.findByUsername(username)
+        return username -> userCache.byUsername(username)
                 .orElseThrow(() -> new UsernameNotFoundException("User not found"));
     }
 
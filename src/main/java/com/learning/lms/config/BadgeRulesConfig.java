@@ -0,0 +1,27 @@
+package com.learning.lms.config;
+
+import com.learning.lms.service.BadgeRule;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+import static com.learning.lms.enums.BadgeMetric.*;
+
+// The badge catalogue. A badge added here is backfilled for existing users on the next startup.
+// (NOVICE is given at registration and has no rule.)
+@Configuration
+public class BadgeRulesConfig {
+
+    @Bean
+    public List<BadgeRule> badgeRules() {
+        return List.of(
+                BadgeRule.of("APPRENTICE").atLeast(XP, 50),
+                BadgeRule.of("MASTER").atLeast(XP, 500),
+                BadgeRule.of("SOCIALITE").atLeast(FOLLOWERS, 5),
+                BadgeRule.of("AUTHOR").atLeast(POSTS, 10),
+                BadgeRule.of("FINISHER").atLeast(STEPS_COMPLETED, 25),
+                BadgeRule.of("ON_FIRE").atLeast(STREAK_DAYS, 7)
+        );
+    }
+}
@@ -0,0 +1,65 @@
+package com.learning.lms.config;
+
+import com.learning.lms.service.UploadAdmission;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+// Runs in the security chain right after JwtAuthenticationFilter, before anything touches the body:
+// a multipart request is only read once it is authenticated and its bytes fit the budget
+@Component
+@RequiredArgsConstructor
+public class UploadAdmissionFilter extends OncePerRequestFilter {
+
+    private final UploadAdmission admission;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        String contentType = request.getContentType();
+        return contentType == null || !contentType.toLowerCase().startsWith("multipart/");
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth instanceof AnonymousAuthenticationToken) {
+            // Anonymous callers may not hold upload budget; refused before the body is read
+            response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+            return;
+        }
+        if (admission.tooLarge(request.getContentLengthLong())) {
+            response.setStatus(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE);
+            response.getWriter().write("Upload too large");
+            return;
+        }
+        UploadAdmission.Ticket ticket;
+        try {
+            ticket = admission.admit(request.getContentLengthLong());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            ticket = null;
+        }
+        if (ticket == null) {
+            response.setStatus(HttpServletResponse.SC_SERVICE_UNAVAILABLE);
+            response.setHeader("Retry-After", "5");
+            response.getWriter().write("Too many uploads in progress, try again shortly");
+            return;
+        }
+        request.setAttribute(UploadAdmission.TICKET_ATTRIBUTE, ticket);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ticket.release();
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.learning.lms.config;
 
 import com.learning.lms.entity.User;
 import com.learning.lms.repository.UserRepository;
+import com.learning.lms.service.UserCache;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.event.EventListener;
@@ -19,6 +20,7 @@ import java.security.Principal;
 public class WebSocketEventListener {
 
     private final UserRepository userRepository;
+    private final UserCache userCache;
 
     @EventListener
     public void handleWebSocketConnectListener(SessionConnectedEvent event) {
@@ -51,6 +53,7 @@ public class WebSocketEventListener {
                     u.setLastSeen(LocalDateTime.now());
                 }
                 userRepository.save(u);
+                userCache.invalidate(userId);
             });
         } catch (NumberFormatException e) {
             log.error("Could not parse user ID from principal: " + username);
@@ -7,7 +7,16 @@ import com.learning.lms.entity.User;
 import com.learning.lms.repository.LearningPlanRepository;
 import com.learning.lms.repository.SkillPostRepository;
 import com.learning.lms.repository.UserRepository;
+import com.learning.lms.service.BadgeService;
 import com.learning.lms.service.ChatService;
+import com.learning.lms.service.FeedMetrics;
+import com.learning.lms.service.LeaderboardService;
+import com.learning.lms.service.SkillPostService;
+import com.learning.lms.service.SocialGraphService;
+import com.learning.lms.service.SuggestionService;
+import com.learning.lms.service.UserCache;
+import com.learning.lms.service.UserStatsService;
+import com.learning.lms.service.XpLedgerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.ResponseEntity;
@@ -31,6 +40,15 @@ public class AdminController {
     private final LearningPlanRepository planRepository;
     private final PasswordEncoder passwordEncoder;
     private final ChatService chatService;
+    private final SkillPostService postService;
+    private final FeedMetrics feedMetrics;
+    private final SocialGraphService socialGraph;
+    private final SuggestionService suggestionService;
+    private final UserStatsService userStatsService;
+    private final LeaderboardService leaderboardService;
+    private final XpLedgerService xpLedger;
+    private final BadgeService badgeService;
+    private final UserCache userCache;
     private final SimpMessagingTemplate messagingTemplate;
 
     // --- 1. OVERVIEW STATS ---
@@ -53,6 +71,12 @@ public class AdminController {
     @DeleteMapping("/users/{id}")
     public ResponseEntity<?> deleteUser(@PathVariable Long id) {
         userRepository.deleteById(id);
+        socialGraph.removeUser(id);
+        suggestionService.removeUser(id);
+        userStatsService.invalidate(id);
+        leaderboardService.removeUser(id);
+        xpLedger.removeUser(id);
+        userCache.invalidate(id);
         return ResponseEntity.ok("User deleted");
     }
 
@@ -85,7 +109,7 @@ public class AdminController {
 
     @DeleteMapping("/posts/{id}")
     public ResponseEntity<?> deletePost(@PathVariable Long id) {
-        postRepository.deleteById(id);
+        postService.deletePost(id);
         return ResponseEntity.ok("Post deleted");
     }
 
@@ -117,6 +141,25 @@ public class AdminController {
         return ResponseEntity.ok(logs);
     }
 
+    // --- 4b. FEED ENGINE METRICS (push vs pull cost) ---
+    @GetMapping("/feed/metrics")
+    public ResponseEntity<Map<String, Object>> getFeedMetrics() {
+        return ResponseEntity.ok(feedMetrics.snapshot());
+    }
+
+    // --- 4c. USER CACHE (size, estimated heap, hit ratios) ---
+    @GetMapping("/cache/users")
+    public ResponseEntity<Map<String, Object>> getUserCacheMetrics() {
+        return ResponseEntity.ok(userCache.snapshot());
+    }
+
+    // --- 4d. BADGES (re-run a rule over all users, e.g. after lowering its threshold) ---
+    @PostMapping("/badges/{badge}/backfill")
+    public ResponseEntity<?> backfillBadge(@PathVariable String badge) {
+        badgeService.backfillAsync(badge);
+        return ResponseEntity.accepted().body("Backfill of " + badge + " started");
+    }
+
     // --- 5. ADMIN MANAGEMENT ---
     @PostMapping("/create-admin")
     public ResponseEntity<?> createAdmin(@RequestBody User request) {
@@ -1,6 +1,8 @@
 package com.learning.lms.controller;
 
+import com.learning.lms.dto.CommentDto;
 import com.learning.lms.dto.CommentRequest;
+import com.learning.lms.dto.CursorPage;
 import com.learning.lms.entity.Comment;
 import com.learning.lms.service.CommentService;
 import lombok.RequiredArgsConstructor;
@@ -8,7 +10,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
-import java.util.List;
 
 @RestController
 @RequestMapping("/api")
@@ -39,9 +40,13 @@ public class CommentController {
         return ResponseEntity.ok(commentService.addCommentByUsername(userDetails.getUsername(), postId, request));
     }
 
+    // Pass nextCursor back as cursor to load older comments
     @GetMapping("/posts/{postId}/comments")
-    public ResponseEntity<List<Comment>> getComments(@PathVariable Long postId) {
-        return ResponseEntity.ok(commentService.getCommentsByPostId(postId));
+    public ResponseEntity<CursorPage<CommentDto>> getComments(
+            @PathVariable Long postId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int limit) {
+        return ResponseEntity.ok(commentService.getComments(postId, cursor, limit));
     }
 
     @PutMapping("/comments/{commentId}")
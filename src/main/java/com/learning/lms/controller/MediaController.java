@@ -0,0 +1,153 @@
+package com.learning.lms.controller;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.nio.file.attribute.BasicFileAttributes;
+
+/**
+ * Serves self-hosted media (LocalMediaStore, plus anything already under /uploads).
+ * Single byte ranges are honoured so videos can seek; files are written with Tomcat's sendfile when
+ * the connector offers it, otherwise with FileChannel.transferTo. Stored files never change,
+ * so size + modification time is a strong validator and responses are cacheable forever.
+ */
+@RestController
+public class MediaController {
+
+    private static final String PREFIX = "/uploads/";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    @Value("${media.local.root:uploads}")
+    private String rootDir;
+
+    private Path root;
+
+    record ByteRange(long start, long end) {
+        long length() { return end - start + 1; }
+    }
+
+    @PostConstruct
+    public void init() {
+        root = Paths.get(rootDir).toAbsolutePath().normalize();
+    }
+
+    @RequestMapping(value = "/uploads/**", method = {RequestMethod.GET, RequestMethod.HEAD})
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String relative = UriUtils.decode(request.getRequestURI().substring(request.getContextPath().length() + PREFIX.length()), StandardCharsets.UTF_8);
+        Path file = root.resolve(relative).normalize();
+        if (!file.startsWith(root) || !Files.isRegularFile(file)) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        BasicFileAttributes attrs = Files.readAttributes(file, BasicFileAttributes.class);
+        long size = attrs.size();
+        String etag = "\"" + Long.toHexString(size) + "-" + Long.toHexString(attrs.lastModifiedTime().toMillis()) + "\"";
+        response.setHeader("ETag", etag);
+        response.setHeader("Accept-Ranges", "bytes");
+        response.setHeader("Cache-Control", "public, max-age=31536000, immutable");
+        response.setContentType(MediaTypeFactory.getMediaType(file.getFileName().toString())
+                .map(Object::toString).orElse("application/octet-stream"));
+
+        if (matches(request.getHeader("If-None-Match"), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        // A Range only applies while the client's copy is still current (If-Range)
+        String rangeHeader = request.getHeader("Range");
+        String ifRange = request.getHeader("If-Range");
+        if (ifRange != null && !ifRange.equals(etag)) rangeHeader = null;
+
+        ByteRange range = new ByteRange(0, size - 1);
+        if (rangeHeader != null) {
+            ByteRange requested = parseRange(rangeHeader, size);
+            if (requested == null) {
+                response.setHeader("Content-Range", "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (requested.length() < size) {
+                range = requested;
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader("Content-Range", "bytes " + range.start() + "-" + range.end() + "/" + size);
+            }
+        }
+        response.setContentLengthLong(size == 0 ? 0 : range.length());
+        if ("HEAD".equals(request.getMethod()) || size == 0) return;
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Tomcat writes the file after the request returns, straight from the page cache
+            request.setAttribute(SENDFILE_FILENAME, file.toString());
+            request.setAttribute(SENDFILE_START, range.start());
+            request.setAttribute(SENDFILE_END, range.end() + 1);
+            return;
+        }
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = range.start();
+            long remaining = range.length();
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) break;
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) return false;
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*") || tag.equals(etag)) return true;
+        }
+        return false;
+    }
+
+    /**
+     * "bytes=a-b", "bytes=a-" or "bytes=-n", clamped to the file. Null when unsatisfiable.
+     * Multi-range and invalid (malformed, b < a) requests are answered with the whole file (allowed by RFC 9110).
+     */
+    static ByteRange parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) return new ByteRange(0, size - 1);
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) return new ByteRange(0, size - 1);
+        try {
+            String from = spec.substring(0, dash).trim();
+            String to = spec.substring(dash + 1).trim();
+            if (from.isEmpty()) {
+                long suffix = Long.parseLong(to);
+                if (suffix <= 0 || size == 0) return null;
+                return new ByteRange(Math.max(0, size - suffix), size - 1);
+            }
+            long start = Long.parseLong(from);
+            long last = to.isEmpty() ? Long.MAX_VALUE : Long.parseLong(to);
+            if (start < 0 || last < start) return new ByteRange(0, size - 1);
+            if (start >= size) return null;
+            return new ByteRange(start, Math.min(last, size - 1));
+        } catch (NumberFormatException e) {
+            return new ByteRange(0, size - 1);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package com.learning.lms.controller;
 
+import com.learning.lms.dto.CursorPage;
+import com.learning.lms.dto.FeedItemDto;
+import com.learning.lms.dto.ReactionSummaryDto;
 import com.learning.lms.dto.UserSummaryDto;
 import com.learning.lms.entity.SkillPost;
+import com.learning.lms.entity.User;
 import com.learning.lms.enums.ReactionType;
 import com.learning.lms.service.SkillPostService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 
@@ -19,14 +25,15 @@ public class SkillPostController {
     private final SkillPostService postService;
 
     @GetMapping
-    public ResponseEntity<List<SkillPost>> getAllPosts(
+    public ResponseEntity<List<FeedItemDto>> getAllPosts(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(postService.getAllPosts(page, size));
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.getAllPosts(page, size, viewerId(viewer)));
     }
 
     @GetMapping("/feed")
-    public ResponseEntity<List<SkillPost>> getFeed(
+    public ResponseEntity<List<FeedItemDto>> getFeed(
             @RequestParam Long userId,
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size) {
@@ -34,26 +41,73 @@ public class SkillPostController {
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<SkillPost>> getUserPosts(
+    public ResponseEntity<List<FeedItemDto>> getUserPosts(
             @PathVariable Long userId,
             @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.getUserPosts(userId, page, size, viewerId(viewer)));
+    }
+
+    @GetMapping("/trending")
+    public ResponseEntity<List<FeedItemDto>> getTrending(
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.getTrendingPosts(page, size, viewerId(viewer)));
+    }
+
+    // Single post; also how a client re-reads a PENDING post after its post-status push
+    @GetMapping("/{postId}")
+    public ResponseEntity<FeedItemDto> getPost(
+            @PathVariable Long postId,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return postService.findVisiblePost(postId, viewerId(viewer))
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    // --- CURSOR FEEDS: pass back nextCursor to load the following page ---
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<FeedItemDto>> getAllPostsByCursor(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.getAllPosts(cursor, size, viewerId(viewer)));
+    }
+
+    @GetMapping("/feed/cursor")
+    public ResponseEntity<CursorPage<FeedItemDto>> getFeedByCursor(
+            @RequestParam Long userId,
+            @RequestParam(required = false) String cursor,
             @RequestParam(defaultValue = "10") int size) {
-        return ResponseEntity.ok(postService.getUserPosts(userId, page, size));
+        return ResponseEntity.ok(postService.getFollowingPosts(userId, cursor, size));
+    }
+
+    @GetMapping("/user/{userId}/cursor")
+    public ResponseEntity<CursorPage<FeedItemDto>> getUserPostsByCursor(
+            @PathVariable Long userId,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.getUserPosts(userId, cursor, size, viewerId(viewer)));
     }
 
     @PostMapping(consumes = {"multipart/form-data"})
-    public ResponseEntity<SkillPost> createPost(
+    public ResponseEntity<FeedItemDto> createPost(
             @RequestParam Long userId,
             @RequestParam(required = false) String description,
             @RequestParam(required = false) List<MultipartFile> media,
             @RequestParam(required = false) Long originalPostId,
             @RequestParam(required = false) Long learningPlanId
     ) {
-        return ResponseEntity.ok(postService.createPost(userId, description, media, originalPostId, learningPlanId));
+        // Posts with media come back PENDING; the PUBLISHED (or FAILED) item follows on /user/{userId}/queue/post-status
+        SkillPost post = postService.createPost(userId, description, media, originalPostId, learningPlanId);
+        return ResponseEntity.ok(postService.getPost(post.getId(), userId));
     }
 
     @PostMapping("/{postId}/react")
-    public ResponseEntity<SkillPost> reactToPost(
+    public ResponseEntity<ReactionSummaryDto> reactToPost(
             @PathVariable Long postId,
             @RequestParam Long userId,
             @RequestParam ReactionType type
@@ -62,8 +116,12 @@ public class SkillPostController {
     }
 
     @GetMapping("/{postId}/reactions")
-    public ResponseEntity<List<UserSummaryDto>> getPostReactions(@PathVariable Long postId) {
-        return ResponseEntity.ok(postService.getPostReactions(postId));
+    public ResponseEntity<List<UserSummaryDto>> getPostReactions(
+            @PathVariable Long postId,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "50") int size
+    ) {
+        return ResponseEntity.ok(postService.getPostReactions(postId, page, size));
     }
 
     @DeleteMapping("/{postId}")
@@ -79,7 +137,22 @@ public class SkillPostController {
 
     // --- NEW SEARCH ENDPOINT ---
     @GetMapping("/search")
-    public ResponseEntity<List<SkillPost>> searchPosts(@RequestParam("query") String query) {
-        return ResponseEntity.ok(postService.searchPosts(query));
+    public ResponseEntity<List<FeedItemDto>> searchPosts(
+            @RequestParam("query") String query,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            @AuthenticationPrincipal UserDetails viewer) {
+        return ResponseEntity.ok(postService.searchPosts(query, page, size, viewerId(viewer)));
+    }
+
+    // Malformed cursor or paging arguments
+    @ExceptionHandler(IllegalArgumentException.class)
+    public ResponseEntity<String> badRequest(IllegalArgumentException e) {
+        return ResponseEntity.badRequest().body(e.getMessage());
+    }
+
+    // GET endpoints are public; the JWT filter still sets the principal when a token is sent
+    private Long viewerId(UserDetails viewer) {
+        return viewer instanceof User user ? user.getId() : null;
     }
 }
\ No newline at end of file
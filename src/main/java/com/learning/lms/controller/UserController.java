@@ -1,5 +1,6 @@
 package com.learning.lms.controller;
 
+import com.learning.lms.dto.LeaderboardEntryDto;
 import com.learning.lms.dto.UserStatsResponse;
 import com.learning.lms.dto.UserSummaryDto;
 import com.learning.lms.dto.UserUpdateRequest;
@@ -72,12 +73,34 @@ public class UserController {
     }
 
     @GetMapping("/leaderboard")
-    public ResponseEntity<List<User>> getLeaderboard() {
-        return ResponseEntity.ok(userService.getLeaderboard());
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboard(@RequestParam(defaultValue = "0") int page,
+                                                                    @RequestParam(defaultValue = "50") int size) {
+        return ResponseEntity.ok(userService.getLeaderboard(Math.max(0, page), Math.min(Math.max(1, size), 100)));
+    }
+
+    @GetMapping("/leaderboard/weekly")
+    public ResponseEntity<List<LeaderboardEntryDto>> getWeeklyLeaderboard(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.getWeeklyLeaderboard(Math.min(Math.max(1, limit), 100)));
+    }
+
+    @GetMapping("/leaderboard/monthly")
+    public ResponseEntity<List<LeaderboardEntryDto>> getMonthlyLeaderboard(@RequestParam(defaultValue = "50") int limit) {
+        return ResponseEntity.ok(userService.getMonthlyLeaderboard(Math.min(Math.max(1, limit), 100)));
+    }
+
+    @GetMapping("/leaderboard/me")
+    public ResponseEntity<LeaderboardEntryDto> getMyRank(@AuthenticationPrincipal UserDetails currentUser) {
+        return ResponseEntity.ok(userService.getMyRank(((User) currentUser).getId()));
+    }
+
+    @GetMapping("/leaderboard/around-me")
+    public ResponseEntity<List<LeaderboardEntryDto>> getLeaderboardAroundMe(@AuthenticationPrincipal UserDetails currentUser,
+                                                                           @RequestParam(defaultValue = "5") int radius) {
+        return ResponseEntity.ok(userService.getLeaderboardAround(((User) currentUser).getId(), Math.min(Math.max(0, radius), 50)));
     }
 
     @GetMapping("/suggestions")
-    public ResponseEntity<List<User>> getSuggestions(@AuthenticationPrincipal UserDetails currentUser) {
+    public ResponseEntity<List<UserSummaryDto>> getSuggestions(@AuthenticationPrincipal UserDetails currentUser) {
         return ResponseEntity.ok(userService.getSuggestions(((User) currentUser).getId()));
     }
 
@@ -92,7 +115,7 @@ public class UserController {
     }
 
     @GetMapping("/{userId}/suggestions")
-    public ResponseEntity<List<User>> getSuggestionsForUser(@PathVariable Long userId) {
+    public ResponseEntity<List<UserSummaryDto>> getSuggestionsForUser(@PathVariable Long userId) {
         return ResponseEntity.ok(userService.getSuggestions(userId));
     }
 }
\ No newline at end of file
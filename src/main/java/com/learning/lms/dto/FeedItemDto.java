@@ -0,0 +1,40 @@
+package com.learning.lms.dto;
+
+import com.learning.lms.enums.PostStatus;
+import com.learning.lms.enums.ReactionType;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// One post as the feed renders it; built by FeedAssembler, never from the entity graph
+@Data
+@NoArgsConstructor
+public class FeedItemDto {
+    private Long id;
+    private String description;
+    private String imageUrl;
+    private List<String> mediaUrls = new ArrayList<>();     // originals (lightbox, video)
+    private List<String> previewUrls = new ArrayList<>();   // same order: feed-size derivative, or the original
+    private List<String> thumbUrls = new ArrayList<>();     // same order: thumbnail derivative, or the original
+    private LocalDateTime createdAt;
+    private PostStatus status;
+    private UserSummaryDto user;
+
+    private Long learningPlanId;
+    private String learningPlanTitle;
+
+    // Reposted post, one level deep (its own counters and comments are not loaded)
+    private FeedItemDto originalPost;
+
+    private Map<ReactionType, Long> reactionCounts = new EnumMap<>(ReactionType.class);
+    private ReactionType myReaction;
+    private long repostCount;
+
+    private long commentCount;
+    private List<CommentDto> comments = new ArrayList<>(); // latest few, newest first
+}
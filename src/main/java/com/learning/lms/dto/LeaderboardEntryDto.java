@@ -0,0 +1,21 @@
+package com.learning.lms.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class LeaderboardEntryDto {
+    private long rank; // users with equal XP share a rank
+    private Long id;
+    private String username;
+    private String firstname;
+    private String lastname;
+    private String avatarUrl;
+    private Integer level;
+    private int xp;
+}
@@ -0,0 +1,18 @@
+package com.learning.lms.dto;
+
+import com.learning.lms.enums.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+// Response of a reaction toggle: the viewer's reaction and the post's fresh totals
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReactionSummaryDto {
+    private Long postId;
+    private ReactionType myReaction; // null when the toggle removed it
+    private Map<ReactionType, Long> reactionCounts;
+}
@@ -16,5 +16,6 @@ public class UserSummaryDto {
     private String lastname;
     private String avatarUrl;
     private Integer level;
+    private Integer xp;
     private String reactionType; // Optional: To show which reaction they used
 }
\ No newline at end of file
@@ -0,0 +1,23 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// Badges whose rule has been evaluated for every existing user (BadgeService backfill)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "badge_backfills")
+public class BadgeBackfill {
+
+    @Id
+    @Column(length = 40)
+    private String badge;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -14,7 +14,10 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "comments")
+@Table(name = "comments", indexes = {
+        // Backs the keyset comment thread (post_id, ORDER BY created_at DESC, id DESC)
+        @Index(name = "idx_comments_post_created_id", columnList = "post_id, created_at, id")
+})
 public class Comment {
 
     @Id
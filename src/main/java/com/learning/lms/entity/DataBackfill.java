@@ -0,0 +1,23 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One-off data backfills that have run to completion (e.g. seeding a new aggregate table)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "data_backfills")
+public class DataBackfill {
+
+    @Id
+    @Column(length = 60)
+    private String name;
+
+    @Column(name = "completed_at", nullable = false)
+    private LocalDateTime completedAt;
+}
@@ -0,0 +1,33 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+// One stored upload per distinct content (SHA-256); written by MediaBlobService with plain SQL
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "media_blob")
+public class MediaBlob {
+
+    @Id
+    @Column(name = "digest", length = 64)
+    private String digest;
+
+    @Column(name = "url", length = 1000, nullable = false)
+    private String url;
+
+    @Column(name = "size", nullable = false)
+    private long size;
+
+    // Posts, chat messages and avatars using it; 0 = unreferenced (still reused if uploaded again)
+    @Column(name = "ref_count", nullable = false)
+    private int refCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
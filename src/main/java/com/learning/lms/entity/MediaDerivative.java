@@ -0,0 +1,38 @@
+package com.learning.lms.entity;
+
+import com.learning.lms.enums.MediaVariant;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// A stored downscaled copy of an uploaded image, looked up by the original's URL
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "media_derivatives")
+@IdClass(MediaDerivative.Key.class)
+public class MediaDerivative {
+
+    @Id
+    @Column(name = "source_url", length = 1000)
+    private String sourceUrl;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "variant", length = 20)
+    private MediaVariant variant;
+
+    @Column(name = "url", length = 1000, nullable = false)
+    private String url;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String sourceUrl;
+        private MediaVariant variant;
+    }
+}
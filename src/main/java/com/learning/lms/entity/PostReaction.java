@@ -0,0 +1,38 @@
+package com.learning.lms.entity;
+
+import com.learning.lms.enums.ReactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// One row per (post, user). Same table the old SkillPost.reactions element collection used.
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "post_reactions")
+@IdClass(PostReaction.Key.class)
+public class PostReaction {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reaction_type")
+    private ReactionType reactionType;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long postId;
+        private Long userId;
+    }
+}
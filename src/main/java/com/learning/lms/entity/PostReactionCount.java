@@ -0,0 +1,38 @@
+package com.learning.lms.entity;
+
+import com.learning.lms.enums.ReactionType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+
+// Denormalized per-post, per-type reaction totals; updated with atomic upserts, never read-modify-write
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "post_reaction_counts")
+@IdClass(PostReactionCount.Key.class)
+public class PostReactionCount {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(name = "reaction_type", length = 20)
+    private ReactionType reactionType;
+
+    @Column(nullable = false)
+    private long count;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long postId;
+        private ReactionType reactionType;
+    }
+}
@@ -1,16 +1,15 @@
 package com.learning.lms.entity;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
-import com.learning.lms.enums.ReactionType;
+import com.learning.lms.enums.PostStatus;
 import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.CreationTimestamp;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 @Getter
 @Setter
@@ -18,7 +17,11 @@ import java.util.Map;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "skill_posts")
+@Table(name = "skill_posts", indexes = {
+        // Back the keyset feed queries (ORDER BY created_at DESC, id DESC)
+        @Index(name = "idx_skill_posts_created_id", columnList = "created_at, id"),
+        @Index(name = "idx_skill_posts_user_created_id", columnList = "user_id, created_at, id")
+})
 public class SkillPost {
 
     @Id
@@ -34,11 +37,18 @@ public class SkillPost {
     @ElementCollection(fetch = FetchType.EAGER)
     @CollectionTable(name = "post_media", joinColumns = @JoinColumn(name = "post_id"))
     @Column(name = "media_url")
+    @OrderColumn(name = "media_order") // upload order, as the author attached the files
     private List<String> mediaUrls = new ArrayList<>();
 
     @CreationTimestamp
     private LocalDateTime createdAt;
 
+    // PENDING while media uploads run (see SkillPostService.createPost); feeds only list PUBLISHED
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20, nullable = false, columnDefinition = "varchar(20) default 'PUBLISHED'")
+    @Builder.Default
+    private PostStatus status = PostStatus.PUBLISHED;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "user_id", nullable = false)
     @JsonIgnoreProperties({"password", "posts", "followers", "following", "plans", "progressUpdates", "comments", "hibernateLazyInitializer", "handler"})
@@ -51,19 +61,14 @@ public class SkillPost {
     private LearningPlan learningPlan;
     // ----------------------------------------------------
 
-    @ElementCollection(fetch = FetchType.EAGER)
-    @CollectionTable(name = "post_reactions", joinColumns = @JoinColumn(name = "post_id"))
-    @MapKeyColumn(name = "user_id")
-    @Column(name = "reaction_type")
-    @Enumerated(EnumType.STRING)
-    private Map<Long, ReactionType> reactions = new HashMap<>();
-
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "original_post_id")
-    @JsonIgnoreProperties({"comments", "reactions", "originalPost", "hibernateLazyInitializer", "handler"})
+    @JsonIgnoreProperties({"comments", "originalPost", "hibernateLazyInitializer", "handler"})
     private SkillPost originalPost;
 
+    // Never serialized: feeds get a count + preview (FeedAssembler), threads are paged separately
     @OneToMany(mappedBy = "post", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @OrderBy("createdAt ASC")
+    @JsonIgnore
     private List<Comment> comments = new ArrayList<>();
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// One row per (reader, post) in a user's materialized home timeline.
+// Written by fan-out-on-write and trimmed to a fixed number of rows per user.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "timeline_entries",
+        uniqueConstraints = @UniqueConstraint(name = "uk_timeline_user_post", columnNames = {"user_id", "post_id"}),
+        indexes = @Index(name = "idx_timeline_user_created_post", columnList = "user_id, created_at, post_id"))
+public class TimelineEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "post_id", nullable = false)
+    private Long postId;
+
+    @Column(name = "author_id", nullable = false)
+    private Long authorId;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,22 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+// Periodic snapshot of TrendingService's in-memory scores so a restart does not start cold
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "trending_scores")
+public class TrendingScore {
+
+    @Id
+    @Column(name = "post_id")
+    private Long postId;
+
+    // ln(forward-decayed score), relative to TrendingService.EPOCH
+    @Column(name = "log_score", nullable = false)
+    private double logScore;
+}
@@ -48,12 +48,20 @@ public class User implements UserDetails {
     @Column(columnDefinition = "TEXT")
     private String avatarUrl;
 
-    @Column(nullable = false)
+    // After insert, only XpAwardQueue changes these (atomic UPDATE); entity saves must not overwrite them
+    @Column(nullable = false, updatable = false)
     private Integer xp = 0;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Integer level = 1;
 
+    // Maintained only by the follow/unfollow statements in UserRepository; JPA never writes them
+    @Column(insertable = false, updatable = false, columnDefinition = "integer not null default 0")
+    private int followerCount;
+
+    @Column(insertable = false, updatable = false, columnDefinition = "integer not null default 0")
+    private int followingCount;
+
     @Enumerated(EnumType.STRING)
     @Builder.Default
     private Role role = Role.USER;
@@ -98,16 +106,6 @@ public class User implements UserDetails {
 
     private LocalDateTime lastSeen;
 
-    public void follow(User userToFollow) {
-        this.following.add(userToFollow);
-        userToFollow.getFollowers().add(this);
-    }
-
-    public void unfollow(User userToUnfollow) {
-        this.following.remove(userToUnfollow);
-        userToUnfollow.getFollowers().remove(this);
-    }
-
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         if (this.role == null) {
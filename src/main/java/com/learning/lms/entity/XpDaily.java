@@ -0,0 +1,37 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+// Rollup of xp_events per user and UTC day; the windowed leaderboards are sums of these
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "xp_daily", indexes = @Index(name = "idx_xp_daily_day", columnList = "day"))
+@IdClass(XpDaily.Key.class)
+public class XpDaily {
+
+    @Id
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Id
+    @Column(name = "day")
+    private LocalDate day;
+
+    @Column(nullable = false)
+    private int xp;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long userId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,33 @@
+package com.learning.lms.entity;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+// Append-only ledger: one row per XP grant. Written by XpLedgerService, never updated.
+@Getter
+@Setter
+@NoArgsConstructor
+@Entity
+@Table(name = "xp_events", indexes = @Index(name = "idx_xp_events_user_created", columnList = "user_id, created_at"))
+public class XpEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int amount;
+
+    @Column(length = 40)
+    private String reason;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
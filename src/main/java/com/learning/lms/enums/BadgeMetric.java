@@ -0,0 +1,10 @@
+package com.learning.lms.enums;
+
+// Per-user counters badge rules are declared against (see BadgeRule, BadgeService)
+public enum BadgeMetric {
+    XP,
+    FOLLOWERS,
+    POSTS,            // published posts
+    STEPS_COMPLETED,  // completed PlanSteps across the user's plans
+    STREAK_DAYS       // consecutive UTC days with XP, up to today (at most the XP month window)
+}
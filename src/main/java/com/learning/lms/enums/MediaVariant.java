@@ -0,0 +1,24 @@
+package com.learning.lms.enums;
+
+// Downscaled copies made by ImageDerivativeService; size is the longest edge (AVATAR: square side)
+public enum MediaVariant {
+    FEED(1080, false),
+    THUMB(320, false),
+    AVATAR(256, true);
+
+    private final int size;
+    private final boolean square;
+
+    MediaVariant(int size, boolean square) {
+        this.size = size;
+        this.square = square;
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public boolean isSquare() {
+        return square;
+    }
+}
@@ -0,0 +1,7 @@
+package com.learning.lms.enums;
+
+public enum PostStatus {
+    PENDING,   // saved, media still uploading; only its author sees it
+    PUBLISHED,
+    FAILED     // an upload failed; the post never reached any feed
+}
@@ -0,0 +1,16 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+@Getter
+@AllArgsConstructor
+public class CommentAddedEvent {
+    private final Long commentId;
+    private final Long postId;
+    private final Long userId;
+    private final String content;
+    private final LocalDateTime createdAt;
+}
@@ -0,0 +1,11 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentDeletedEvent {
+    private final Long commentId;
+    private final Long postId;
+}
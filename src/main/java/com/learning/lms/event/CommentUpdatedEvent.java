@@ -0,0 +1,12 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class CommentUpdatedEvent {
+    private final Long commentId;
+    private final Long postId;
+    private final String content;
+}
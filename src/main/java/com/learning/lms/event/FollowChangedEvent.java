@@ -0,0 +1,12 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class FollowChangedEvent {
+    private final Long followerId;
+    private final Long targetUserId;
+    private final boolean following; // false = unfollow
+}
@@ -0,0 +1,12 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// A plan was created, cloned or deleted, or one of its steps was toggled
+@Getter
+@AllArgsConstructor
+public class PlanChangedEvent {
+    private final Long planId;
+    private final Long ownerId;
+}
@@ -0,0 +1,17 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Published inside the creating transaction; listeners react after commit
+@Getter
+@AllArgsConstructor
+public class PostCreatedEvent {
+    private final Long postId;
+    private final Long authorId;
+    private final LocalDateTime createdAt;
+    private final String description;
+    private final Long originalPostId; // set for reposts
+}
@@ -0,0 +1,11 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+@Getter
+@AllArgsConstructor
+public class PostDeletedEvent {
+    private final Long postId;
+    private final Long authorId;
+}
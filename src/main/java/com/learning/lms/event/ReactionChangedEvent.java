@@ -0,0 +1,16 @@
+package com.learning.lms.event;
+
+import com.learning.lms.enums.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// Published by ReactionWriteBuffer's flush for every persisted change; null = no reaction
+@Getter
+@AllArgsConstructor
+public class ReactionChangedEvent {
+    private final Long postId;
+    private final Long authorId; // of the post
+    private final Long userId;
+    private final ReactionType before;
+    private final ReactionType after;
+}
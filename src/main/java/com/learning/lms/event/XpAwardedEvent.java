@@ -0,0 +1,17 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// Published by XpAwardQueue's flush per user; amount is everything applied in that flush, totalXp the XP after it
+@Getter
+@AllArgsConstructor
+public class XpAwardedEvent {
+    private final Long userId;
+    private final int amount;
+    private final int totalXp;
+    private final LocalDateTime awardedAt; // UTC, as recorded in xp_events
+    private final long ledgerSeq;          // highest xp_events id written by the flush
+}
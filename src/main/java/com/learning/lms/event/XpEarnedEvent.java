@@ -0,0 +1,13 @@
+package com.learning.lms.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// An XP grant requested by a user action; queued by XpAwardQueue once the action commits
+@Getter
+@AllArgsConstructor
+public class XpEarnedEvent {
+    private final Long userId;
+    private final int amount;
+    private final String reason;
+}
@@ -1,11 +1,67 @@
 package com.learning.lms.repository;
 
 import com.learning.lms.entity.Comment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface CommentRepository extends JpaRepository<Comment, Long> {
 
-    // This is the missing method that caused the error
-    List<Comment> findByPostIdOrderByCreatedAtDesc(Long postId);
-}
\ No newline at end of file
+    interface ThreadRow {
+        Long getId();
+        String getContent();
+        LocalDateTime getCreatedAt();
+        Long getUserId();
+        String getUsername();
+        String getFirstname();
+        String getLastname();
+        String getAvatarUrl();
+        Integer getLevel();
+    }
+
+    // Comment thread, newest first, one seek page at a time (author columns come along in the same row)
+    @Query("SELECT c.id AS id, c.content AS content, c.createdAt AS createdAt, u.id AS userId, u.username AS username, " +
+            "u.firstname AS firstname, u.lastname AS lastname, u.avatarUrl AS avatarUrl, u.level AS level " +
+            "FROM Comment c JOIN c.user u WHERE c.post.id = :postId " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ThreadRow> findThread(@Param("postId") Long postId, Pageable pageable);
+
+    @Query("SELECT c.id AS id, c.content AS content, c.createdAt AS createdAt, u.id AS userId, u.username AS username, " +
+            "u.firstname AS firstname, u.lastname AS lastname, u.avatarUrl AS avatarUrl, u.level AS level " +
+            "FROM Comment c JOIN c.user u WHERE c.post.id = :postId " +
+            "AND c.createdAt <= :createdAt AND (c.createdAt < :createdAt OR c.id < :id) " +
+            "ORDER BY c.createdAt DESC, c.id DESC")
+    List<ThreadRow> findThreadBefore(@Param("postId") Long postId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
+
+    interface CommentRow {
+        Long getId();
+        String getContent();
+        LocalDateTime getCreatedAt();
+        Long getPostId();
+        Long getUserId();
+    }
+
+    // Latest :limit comments of every post in the page, in one query
+    @Query(value = "SELECT ranked.id AS id, ranked.content AS content, ranked.created_at AS createdAt, " +
+            "ranked.post_id AS postId, ranked.user_id AS userId FROM (" +
+            "SELECT c.*, ROW_NUMBER() OVER (PARTITION BY c.post_id ORDER BY c.created_at DESC, c.id DESC) AS rn " +
+            "FROM comments c WHERE c.post_id IN (:postIds)) ranked " +
+            "WHERE ranked.rn <= :limit ORDER BY ranked.post_id, ranked.created_at DESC, ranked.id DESC", nativeQuery = true)
+    List<CommentRow> findLatestByPostIds(@Param("postIds") Collection<Long> postIds, @Param("limit") int limit);
+
+    interface CommentCount {
+        Long getPostId();
+        Long getCount();
+    }
+
+    @Query("SELECT c.post.id AS postId, COUNT(c) AS count FROM Comment c WHERE c.post.id IN :postIds GROUP BY c.post.id")
+    List<CommentCount> countByPostIds(@Param("postIds") Collection<Long> postIds);
+}
@@ -0,0 +1,7 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.DataBackfill;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface DataBackfillRepository extends JpaRepository<DataBackfill, String> {
+}
@@ -3,8 +3,11 @@ package com.learning.lms.repository;
 import com.learning.lms.entity.LearningPlan;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,4 +24,13 @@ public interface LearningPlanRepository extends JpaRepository<LearningPlan, Long
     // Tags will be lazy-loaded in the service (which is fine and safe).
     @EntityGraph(attributePaths = {"user", "steps"})
     List<LearningPlan> findByIsPublicTrueOrderByCreatedAtDesc();
-}
\ No newline at end of file
+
+    interface PlanTitle {
+        Long getId();
+        String getTitle();
+    }
+
+    // Linked-plan chips on feed items
+    @Query("SELECT p.id AS id, p.title AS title FROM LearningPlan p WHERE p.id IN :ids")
+    List<PlanTitle> findTitlesByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,12 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.MediaDerivative;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface MediaDerivativeRepository extends JpaRepository<MediaDerivative, MediaDerivative.Key> {
+
+    List<MediaDerivative> findBySourceUrlIn(Collection<String> sourceUrls);
+}
@@ -0,0 +1,52 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.PostReactionCount;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface PostReactionCountRepository extends JpaRepository<PostReactionCount, PostReactionCount.Key> {
+
+    List<PostReactionCount> findByPostIdIn(Collection<Long> postIds);
+
+    // One-off seed from the existing post_reactions rows. A recount, so it also corrects counters a flush
+    // wrote before the seed ran (flushes change post_reactions and the counters in one transaction)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO post_reaction_counts (post_id, reaction_type, count) " +
+            "SELECT r.post_id, r.reaction_type, COUNT(*) FROM post_reactions r GROUP BY r.post_id, r.reaction_type " +
+            "ON CONFLICT (post_id, reaction_type) DO UPDATE SET count = EXCLUDED.count", nativeQuery = true)
+    int seedFromReactions();
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostReactionCount c WHERE c.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    interface UserReaction {
+        Long getPostId();
+        String getReactionType();
+    }
+
+    // "Did I react?" for a whole page of posts in one query
+    @Query(value = "SELECT r.post_id AS postId, r.reaction_type AS reactionType FROM post_reactions r " +
+            "WHERE r.user_id = :userId AND r.post_id IN (:postIds)", nativeQuery = true)
+    List<UserReaction> findUserReactions(@Param("userId") Long userId, @Param("postIds") Collection<Long> postIds);
+
+    interface PostReactionState {
+        String getReactionType();
+        Long getCount();
+        String getMine();
+    }
+
+    // Existence, counters and the user's own reaction of one post in one statement; no rows = no such post
+    @Query(value = "SELECT c.reaction_type AS reactionType, c.count AS count, " +
+            "(SELECT r.reaction_type FROM post_reactions r WHERE r.post_id = p.id AND r.user_id = :userId) AS mine " +
+            "FROM skill_posts p LEFT JOIN post_reaction_counts c ON c.post_id = p.id WHERE p.id = :postId", nativeQuery = true)
+    List<PostReactionState> findState(@Param("postId") Long postId, @Param("userId") Long userId);
+}
@@ -0,0 +1,36 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.PostReaction;
+import com.learning.lms.enums.ReactionType;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+
+public interface PostReactionRepository extends JpaRepository<PostReaction, PostReaction.Key> {
+
+    interface Reactor {
+        Long getId();
+        String getUsername();
+        String getFirstname();
+        String getLastname();
+        String getAvatarUrl();
+        Integer getLevel();
+        ReactionType getReactionType();
+    }
+
+    // Reactor list as a flat projection (no User entities, no badge joins)
+    @Query("SELECT u.id AS id, u.username AS username, u.firstname AS firstname, u.lastname AS lastname, " +
+            "u.avatarUrl AS avatarUrl, u.level AS level, r.reactionType AS reactionType " +
+            "FROM PostReaction r JOIN User u ON u.id = r.userId WHERE r.postId = :postId ORDER BY r.userId")
+    List<Reactor> findReactors(@Param("postId") Long postId, Pageable pageable);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM PostReaction r WHERE r.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+}
@@ -1,43 +1,144 @@
 package com.learning.lms.repository;
 
 import com.learning.lms.entity.SkillPost;
+import com.learning.lms.enums.PostStatus;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 public interface SkillPostRepository extends JpaRepository<SkillPost, Long> {
 
+    // Feed pages only select ids (index-only scans on created_at/id), then the page
+    // is hydrated by FeedAssembler. Combining Pageable with JOIN FETCH
+    // made Hibernate load every post + comment and paginate in memory.
+
     // 1. Feed Query (Followed Users + Self)
-    @Query("SELECT DISTINCT p FROM SkillPost p " +
-            "LEFT JOIN FETCH p.user " +
-            "LEFT JOIN FETCH p.comments c " +
-            "LEFT JOIN FETCH c.user " +
-            "WHERE p.user.id IN " +
+    @Query("SELECT p.id FROM SkillPost p " +
+            "WHERE (p.user.id IN " +
             "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
-            "OR p.user.id = :userId " +
-            "ORDER BY p.createdAt DESC")
-    Slice<SkillPost> findPostsByFollowedUsers(@Param("userId") Long userId, Pageable pageable);
+            "OR p.user.id = :userId) " +
+            "AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPostIdsByFollowedUsers(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p.id FROM SkillPost p " +
+            "WHERE (p.user.id IN " +
+            "(SELECT f.id FROM User u JOIN u.following f WHERE u.id = :userId) " +
+            "OR p.user.id = :userId) " +
+            "AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPostIdsByFollowedUsersBefore(@Param("userId") Long userId,
+                                                @Param("createdAt") LocalDateTime createdAt,
+                                                @Param("id") Long id,
+                                                Pageable pageable);
 
     // 2. Global Feed
-    @Query("SELECT DISTINCT p FROM SkillPost p " +
-            "LEFT JOIN FETCH p.user " +
-            "LEFT JOIN FETCH p.comments c " +
-            "LEFT JOIN FETCH c.user " +
-            "ORDER BY p.createdAt DESC")
-    Slice<SkillPost> findAllPosts(Pageable pageable);
+    @Query("SELECT p.id FROM SkillPost p WHERE p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findAllPostIds(Pageable pageable);
+
+    @Query("SELECT p.id FROM SkillPost p " +
+            "WHERE p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findAllPostIdsBefore(@Param("createdAt") LocalDateTime createdAt,
+                                    @Param("id") Long id,
+                                    Pageable pageable);
 
     // 3. Profile Posts Tab
-    @Query("SELECT DISTINCT p FROM SkillPost p " +
-            "LEFT JOIN FETCH p.user " +
-            "LEFT JOIN FETCH p.comments c " +
-            "LEFT JOIN FETCH c.user " +
-            "WHERE p.user.id = :userId " +
-            "ORDER BY p.createdAt DESC")
-    Slice<SkillPost> findByUserId(Long userId, Pageable pageable);
+    @Query("SELECT p.id FROM SkillPost p WHERE p.user.id = :userId AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPostIdsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p.id FROM SkillPost p WHERE p.user.id = :userId AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Long> findPostIdsByUserIdBefore(@Param("userId") Long userId,
+                                         @Param("createdAt") LocalDateTime createdAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    interface PostRef {
+        Long getId();
+        LocalDateTime getCreatedAt();
+    }
+
+    // Read-time pull for high-follower authors (merged with the pushed timeline)
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM SkillPost p WHERE p.user.id IN :authorIds " +
+            "AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostRef> findRefsByAuthors(@Param("authorIds") Collection<Long> authorIds, Pageable pageable);
+
+    @Query("SELECT p.id AS id, p.createdAt AS createdAt FROM SkillPost p WHERE p.user.id IN :authorIds " +
+            "AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED " +
+            "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<PostRef> findRefsByAuthorsBefore(@Param("authorIds") Collection<Long> authorIds,
+                                          @Param("createdAt") LocalDateTime createdAt,
+                                          @Param("id") Long id,
+                                          Pageable pageable);
+
+    // --- FEED ASSEMBLY (see FeedAssembler): scalar rows only, one IN query each ---
+    interface FeedRow {
+        Long getId();
+        String getDescription();
+        String getImageUrl();
+        LocalDateTime getCreatedAt();
+        Long getUserId();
+        Long getLearningPlanId();
+        Long getOriginalPostId();
+        PostStatus getStatus();
+    }
+
+    @Query("SELECT p.id AS id, p.description AS description, p.imageUrl AS imageUrl, p.createdAt AS createdAt, " +
+            "p.user.id AS userId, lp.id AS learningPlanId, op.id AS originalPostId, p.status AS status " +
+            "FROM SkillPost p LEFT JOIN p.learningPlan lp LEFT JOIN p.originalPost op WHERE p.id IN :ids")
+    List<FeedRow> findFeedRows(@Param("ids") Collection<Long> ids);
+
+    interface MediaRow {
+        Long getPostId();
+        String getMediaUrl();
+    }
+
+    @Query(value = "SELECT m.post_id AS postId, m.media_url AS mediaUrl FROM post_media m WHERE m.post_id IN (:ids) " +
+            "ORDER BY m.post_id, m.media_order", nativeQuery = true)
+    List<MediaRow> findMediaByPostIds(@Param("ids") Collection<Long> ids);
+
+    // Rows written before post_media had an order column: numbered in physical (insertion) order, once
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE post_media m SET media_order = n.idx FROM (" +
+            "SELECT ctid AS row_id, row_number() OVER (PARTITION BY post_id ORDER BY ctid) - 1 AS idx " +
+            "FROM post_media WHERE post_id IN (SELECT post_id FROM post_media WHERE media_order IS NULL)) n " +
+            "WHERE m.ctid = n.row_id", nativeQuery = true)
+    int numberUnorderedMedia();
+
+    interface RepostCount {
+        Long getPostId();
+        Long getCount();
+    }
+
+    @Query("SELECT op.id AS postId, COUNT(p) AS count FROM SkillPost p JOIN p.originalPost op " +
+            "WHERE op.id IN :ids GROUP BY op.id")
+    List<RepostCount> countReposts(@Param("ids") Collection<Long> ids);
+
+    interface PostText {
+        Long getId();
+        String getDescription();
+    }
+
+    // Chunked scan used to (re)build the in-memory search index
+    @Query("SELECT p.id AS id, p.description AS description FROM SkillPost p WHERE p.id > :afterId " +
+            "AND p.status = com.learning.lms.enums.PostStatus.PUBLISHED ORDER BY p.id")
+    List<PostText> findTextsAfter(@Param("afterId") Long afterId, Pageable pageable);
 
     // 4. Profile Progress Tab (List)
     // Fetches posts that are either linked to a plan OR have a special tag like [MILESTONE]
@@ -49,4 +150,4 @@ public interface SkillPostRepository extends JpaRepository<SkillPost, Long> {
     // Legacy support
     int countByUserId(Long userId);
     List<SkillPost> findByUserIdOrderByCreatedAtDesc(Long userId);
-}
\ No newline at end of file
+}
@@ -0,0 +1,91 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.TimelineEntry;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+public interface TimelineEntryRepository extends JpaRepository<TimelineEntry, Long> {
+
+    interface TimelinePostRef {
+        Long getPostId();
+        LocalDateTime getCreatedAt();
+    }
+
+    @Query("SELECT t.postId AS postId, t.createdAt AS createdAt FROM TimelineEntry t " +
+            "WHERE t.userId = :userId ORDER BY t.createdAt DESC, t.postId DESC")
+    List<TimelinePostRef> findLatest(@Param("userId") Long userId, Pageable pageable);
+
+    boolean existsByUserId(Long userId);
+
+    // Fan-out-on-write: one statement pushes the post to the author and every follower
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) " +
+            "SELECT uf.follower_id, :postId, :authorId, :createdAt FROM user_following uf WHERE uf.following_id = :authorId " +
+            "UNION SELECT :authorId, :postId, :authorId, :createdAt " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int fanOut(@Param("postId") Long postId, @Param("authorId") Long authorId, @Param("createdAt") LocalDateTime createdAt);
+
+    // High-follower authors only write to their own timeline; followers pull their posts at read time
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) " +
+            "VALUES (:authorId, :postId, :authorId, :createdAt) " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int pushToAuthor(@Param("postId") Long postId, @Param("authorId") Long authorId, @Param("createdAt") LocalDateTime createdAt);
+
+    // Copies an author's latest posts into a new follower's timeline
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) " +
+            "SELECT :userId, p.id, p.user_id, p.created_at FROM skill_posts p WHERE p.user_id = :authorId AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int backfillAuthor(@Param("userId") Long userId, @Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // An author dropping back below the pull threshold: their latest posts into every follower's timeline
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) " +
+            "SELECT uf.follower_id, p.id, p.user_id, p.created_at FROM (SELECT id, user_id, created_at FROM skill_posts " +
+            "WHERE user_id = :authorId AND status = 'PUBLISHED' ORDER BY created_at DESC, id DESC LIMIT :limit) p " +
+            "JOIN user_following uf ON uf.following_id = p.user_id " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int fanOutRecent(@Param("authorId") Long authorId, @Param("limit") int limit);
+
+    // Seeds an empty timeline from everyone the user follows (first read after deploy / eviction)
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO timeline_entries (user_id, post_id, author_id, created_at) " +
+            "SELECT :userId, p.id, p.user_id, p.created_at FROM skill_posts p " +
+            "WHERE (p.user_id = :userId OR p.user_id IN (SELECT uf.following_id FROM user_following uf WHERE uf.follower_id = :userId)) " +
+            "AND p.status = 'PUBLISHED' " +
+            "ORDER BY p.created_at DESC, p.id DESC LIMIT :limit " +
+            "ON CONFLICT (user_id, post_id) DO NOTHING", nativeQuery = true)
+    int rebuild(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.userId = :userId AND t.authorId = :authorId")
+    int deleteByUserIdAndAuthorId(@Param("userId") Long userId, @Param("authorId") Long authorId);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM TimelineEntry t WHERE t.postId = :postId")
+    int deleteByPostId(@Param("postId") Long postId);
+
+    // Keeps the persisted ring bounded: drops everything past the newest :capacity rows per user
+    @Modifying
+    @Transactional
+    @Query(value = "DELETE FROM timeline_entries WHERE id IN (" +
+            "SELECT id FROM (SELECT id, row_number() OVER (PARTITION BY user_id ORDER BY created_at DESC, post_id DESC) AS rn " +
+            "FROM timeline_entries) ranked WHERE ranked.rn > :capacity)", nativeQuery = true)
+    int trimToCapacity(@Param("capacity") int capacity);
+}
@@ -0,0 +1,7 @@
+package com.learning.lms.repository;
+
+import com.learning.lms.entity.TrendingScore;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface TrendingScoreRepository extends JpaRepository<TrendingScore, Long> {
+}
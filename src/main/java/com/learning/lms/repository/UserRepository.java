@@ -1,11 +1,13 @@
 package com.learning.lms.repository;
 
 import com.learning.lms.entity.User;
-import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -22,7 +24,51 @@ public interface UserRepository extends JpaRepository<User, Long> {
             "LOWER(u.lastname) LIKE LOWER(CONCAT('%', :query, '%'))")
     List<User> searchUsers(@Param("query") String query);
 
-    @Query("SELECT u FROM User u WHERE u.id != :currentUserId AND u.id NOT IN " +
-            "(SELECT f.id FROM User me JOIN me.following f WHERE me.id = :currentUserId)")
-    List<User> findSuggestedUsers(@Param("currentUserId") Long currentUserId, Pageable pageable);
-}
\ No newline at end of file
+    interface UserSummaryView {
+        Long getId();
+        String getUsername();
+        String getFirstname();
+        String getLastname();
+        String getAvatarUrl();
+        Integer getLevel();
+        Integer getXp();
+    }
+
+    // Author cards for a page of posts / comments without loading User entities (badges are EAGER)
+    @Query("SELECT u.id AS id, u.username AS username, u.firstname AS firstname, u.lastname AS lastname, " +
+            "u.avatarUrl AS avatarUrl, u.level AS level, u.xp AS xp FROM User u WHERE u.id IN :ids")
+    List<UserSummaryView> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(value = "SELECT uf.following_id FROM user_following uf GROUP BY uf.following_id HAVING COUNT(*) > :threshold", nativeQuery = true)
+    List<Long> findUserIdsWithMoreFollowersThan(@Param("threshold") long threshold);
+
+    // --- FOLLOW EDGES ---
+    // One statement each: the edge row and both counters change together, and only when the edge actually
+    // changed (a repeated click is a no-op). Returns the number of counter rows updated: 2, or 0 if nothing changed.
+    @Modifying
+    @Transactional
+    @Query(value = "WITH ins AS (INSERT INTO user_following (follower_id, following_id) VALUES (:followerId, :targetId) " +
+            "ON CONFLICT DO NOTHING RETURNING 1) " +
+            "UPDATE _user SET following_count = following_count + CASE WHEN id = :followerId THEN 1 ELSE 0 END, " +
+            "follower_count = follower_count + CASE WHEN id = :targetId THEN 1 ELSE 0 END " +
+            "WHERE id IN (:followerId, :targetId) AND EXISTS (SELECT 1 FROM ins)", nativeQuery = true)
+    int insertFollow(@Param("followerId") Long followerId, @Param("targetId") Long targetId);
+
+    @Modifying
+    @Transactional
+    @Query(value = "WITH del AS (DELETE FROM user_following WHERE follower_id = :followerId AND following_id = :targetId RETURNING 1) " +
+            "UPDATE _user SET following_count = following_count - CASE WHEN id = :followerId THEN 1 ELSE 0 END, " +
+            "follower_count = follower_count - CASE WHEN id = :targetId THEN 1 ELSE 0 END " +
+            "WHERE id IN (:followerId, :targetId) AND EXISTS (SELECT 1 FROM del)", nativeQuery = true)
+    int deleteFollow(@Param("followerId") Long followerId, @Param("targetId") Long targetId);
+
+    // Recounts from user_following, writing only rows that drifted (new columns, deleted users)
+    @Modifying
+    @Transactional
+    @Query(value = "UPDATE _user u SET follower_count = c.followers, following_count = c.following FROM (" +
+            "SELECT x.id, COALESCE(fr.n, 0) AS followers, COALESCE(fg.n, 0) AS following FROM _user x " +
+            "LEFT JOIN (SELECT following_id AS id, COUNT(*) AS n FROM user_following GROUP BY following_id) fr ON fr.id = x.id " +
+            "LEFT JOIN (SELECT follower_id AS id, COUNT(*) AS n FROM user_following GROUP BY follower_id) fg ON fg.id = x.id) c " +
+            "WHERE u.id = c.id AND (u.follower_count <> c.followers OR u.following_count <> c.following)", nativeQuery = true)
+    int reconcileFollowCounts();
+}
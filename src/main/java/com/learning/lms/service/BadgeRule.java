@@ -0,0 +1,38 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.BadgeMetric;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A badge earned once every listed metric reaches its threshold, e.g.
+ * BadgeRule.of("MASTER").atLeast(BadgeMetric.XP, 500). The metrics it lists are the only changes
+ * that make BadgeService look at it again.
+ */
+public record BadgeRule(String badge, Map<BadgeMetric, Integer> thresholds) {
+
+    public static BadgeRule of(String badge) {
+        return new BadgeRule(badge, Collections.unmodifiableMap(new EnumMap<>(BadgeMetric.class)));
+    }
+
+    public BadgeRule atLeast(BadgeMetric metric, int threshold) {
+        Map<BadgeMetric, Integer> next = new EnumMap<>(BadgeMetric.class);
+        next.putAll(thresholds);
+        next.put(metric, threshold);
+        return new BadgeRule(badge, Collections.unmodifiableMap(next));
+    }
+
+    public Set<BadgeMetric> dependsOn() {
+        return thresholds.keySet();
+    }
+
+    public boolean isMetBy(Map<BadgeMetric, Integer> metrics) {
+        for (Map.Entry<BadgeMetric, Integer> t : thresholds.entrySet()) {
+            if (metrics.getOrDefault(t.getKey(), 0) < t.getValue()) return false;
+        }
+        return true;
+    }
+}
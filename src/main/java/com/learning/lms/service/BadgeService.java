@@ -0,0 +1,234 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.BadgeMetric;
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.event.PlanChangedEvent;
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.XpAwardedEvent;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Timestamp;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Awards the badges declared as BadgeRules (BadgeRulesConfig).
+ * Incremental: committed events only mark (user, metric) as changed; a periodic pass looks at just the
+ * rules subscribed to those metrics that the user does not hold yet, and loads metrics only for users
+ * left with a candidate. Backfill: a rule whose badge has not been backfilled yet (badge_backfills)
+ * is evaluated for every user at startup, in id-ordered chunks on a background thread.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BadgeService {
+
+    private static final String METRICS_SQL = "SELECT u.id, u.xp, u.follower_count, " +
+            "(SELECT COUNT(*) FROM skill_posts p WHERE p.user_id = u.id AND p.status = 'PUBLISHED'), " +
+            "(SELECT COUNT(*) FROM plan_steps s JOIN learning_plans lp ON lp.id = s.learning_plan_id WHERE lp.user_id = u.id AND s.completed) " +
+            "FROM _user u WHERE u.id = ANY(?::bigint[])";
+
+    private final List<BadgeRule> rules;
+    private final JdbcTemplate jdbcTemplate;
+    private final XpLedgerService xpLedger;
+    private final UserCache userCache;
+
+    @Value("${badges.backfill.chunk-size:1000}")
+    private int chunkSize;
+
+    private final Map<BadgeMetric, List<BadgeRule>> rulesByMetric = new EnumMap<>(BadgeMetric.class);
+    private final ExecutorService backfiller = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("badge-backfill").daemon().factory());
+
+    // Guarded by this
+    private Map<Long, EnumSet<BadgeMetric>> changed = new HashMap<>();
+
+    @PostConstruct
+    public void init() {
+        for (BadgeRule rule : rules) {
+            for (BadgeMetric metric : rule.dependsOn()) rulesByMetric.computeIfAbsent(metric, m -> new ArrayList<>()).add(rule);
+        }
+    }
+
+    // --- SIGNALS (after commit) ---
+    @TransactionalEventListener
+    public void onXpAwarded(XpAwardedEvent event) {
+        markChanged(event.getUserId(), BadgeMetric.XP, BadgeMetric.STREAK_DAYS);
+    }
+
+    // Only a gained follower can earn a badge
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (event.isFollowing()) markChanged(event.getTargetUserId(), BadgeMetric.FOLLOWERS);
+    }
+
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        markChanged(event.getAuthorId(), BadgeMetric.POSTS);
+    }
+
+    @TransactionalEventListener
+    public void onPlanChanged(PlanChangedEvent event) {
+        markChanged(event.getOwnerId(), BadgeMetric.STEPS_COMPLETED);
+    }
+
+    private synchronized void markChanged(long userId, BadgeMetric... metrics) {
+        changed.computeIfAbsent(userId, id -> EnumSet.noneOf(BadgeMetric.class)).addAll(Arrays.asList(metrics));
+    }
+
+    private synchronized Map<Long, EnumSet<BadgeMetric>> takeChanged() {
+        Map<Long, EnumSet<BadgeMetric>> taken = changed;
+        changed = new HashMap<>();
+        return taken;
+    }
+
+    // A failed pass puts its marks back for the next one (metric sets union; granting is idempotent)
+    private synchronized void requeue(Map<Long, EnumSet<BadgeMetric>> batch) {
+        batch.forEach((userId, metrics) -> changed.merge(userId, metrics, (a, b) -> {
+            a.addAll(b);
+            return a;
+        }));
+    }
+
+    // --- INCREMENTAL PASS ---
+    @Scheduled(fixedDelayString = "${badges.evaluate-interval-ms:1000}")
+    public void evaluateChanged() {
+        Map<Long, EnumSet<BadgeMetric>> batch = takeChanged();
+        if (batch.isEmpty()) return;
+        try {
+            evaluate(batch);
+        } catch (RuntimeException e) {
+            log.error("Badge check of {} users failed, re-queued", batch.size(), e);
+            requeue(batch);
+        }
+    }
+
+    private void evaluate(Map<Long, EnumSet<BadgeMetric>> batch) {
+        Map<Long, Set<String>> held = heldBadges(batch.keySet());
+
+        Map<Long, List<BadgeRule>> candidates = new HashMap<>();
+        batch.forEach((userId, metrics) -> {
+            Set<String> has = held.getOrDefault(userId, Set.of());
+            Set<BadgeRule> affected = new LinkedHashSet<>();
+            for (BadgeMetric metric : metrics) {
+                for (BadgeRule rule : rulesByMetric.getOrDefault(metric, List.of())) {
+                    if (!has.contains(rule.badge())) affected.add(rule);
+                }
+            }
+            if (!affected.isEmpty()) candidates.put(userId, new ArrayList<>(affected));
+        });
+        if (candidates.isEmpty()) return;
+
+        Map<Long, Map<BadgeMetric, Integer>> metrics = loadMetrics(candidates.keySet());
+        List<Long> users = new ArrayList<>();
+        List<String> badges = new ArrayList<>();
+        candidates.forEach((userId, userRules) -> {
+            Map<BadgeMetric, Integer> values = metrics.get(userId);
+            if (values == null) return; // deleted meanwhile
+            for (BadgeRule rule : userRules) {
+                if (rule.isMetBy(values)) {
+                    users.add(userId);
+                    badges.add(rule.badge());
+                }
+            }
+        });
+        grant(users, badges);
+    }
+
+    // --- BACKFILL ---
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillNewRules() {
+        Set<String> done = new HashSet<>(jdbcTemplate.queryForList("SELECT badge FROM badge_backfills", String.class));
+        for (BadgeRule rule : rules) {
+            if (!done.contains(rule.badge())) backfillAsync(rule.badge());
+        }
+    }
+
+    /** Queues a backfill of one declared badge (e.g. after its threshold was lowered). */
+    public void backfillAsync(String badge) {
+        BadgeRule rule = rules.stream().filter(r -> r.badge().equals(badge)).findFirst()
+                .orElseThrow(() -> new RuntimeException("Unknown badge: " + badge));
+        backfiller.execute(() -> {
+            try {
+                backfill(rule);
+            } catch (RuntimeException e) {
+                log.error("Backfill of badge {} failed; it is retried on the next startup", rule.badge(), e);
+            }
+        });
+    }
+
+    // Keyset chunks by id; each chunk is one metrics query and one insert, so progress survives a failure midway
+    private void backfill(BadgeRule rule) {
+        long start = System.nanoTime();
+        long lastId = 0;
+        int granted = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT u.id FROM _user u WHERE u.id > ? AND NOT EXISTS " +
+                            "(SELECT 1 FROM user_badges b WHERE b.user_id = u.id AND b.badge_name = ?) ORDER BY u.id LIMIT ?",
+                    Long.class, lastId, rule.badge(), chunkSize);
+            if (ids.isEmpty()) break;
+            lastId = ids.get(ids.size() - 1);
+            List<Long> users = new ArrayList<>();
+            loadMetrics(ids).forEach((userId, values) -> {
+                if (rule.isMetBy(values)) users.add(userId);
+            });
+            grant(users, Collections.nCopies(users.size(), rule.badge()));
+            granted += users.size();
+        }
+        jdbcTemplate.update("INSERT INTO badge_backfills (badge, completed_at) VALUES (?, ?) " +
+                "ON CONFLICT (badge) DO UPDATE SET completed_at = EXCLUDED.completed_at",
+                rule.badge(), Timestamp.valueOf(XpLedgerService.now()));
+        log.info("Backfilled badge {}: {} users in {} ms", rule.badge(), granted, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    // --- DATA ---
+    private Map<Long, Set<String>> heldBadges(Collection<Long> userIds) {
+        Map<Long, Set<String>> held = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, badge_name FROM user_badges WHERE user_id = ANY(?::bigint[])", rs -> {
+            held.computeIfAbsent(rs.getLong(1), id -> new HashSet<>()).add(rs.getString(2));
+        }, (Object) userIds.toArray(Long[]::new));
+        return held;
+    }
+
+    // Counters from _user, counts from indexed user_id columns, the streak from XpLedgerService's day buckets
+    private Map<Long, Map<BadgeMetric, Integer>> loadMetrics(Collection<Long> userIds) {
+        Map<Long, Map<BadgeMetric, Integer>> metrics = new HashMap<>();
+        jdbcTemplate.query(METRICS_SQL, rs -> {
+            long userId = rs.getLong(1);
+            Map<BadgeMetric, Integer> values = new EnumMap<>(BadgeMetric.class);
+            values.put(BadgeMetric.XP, rs.getInt(2));
+            values.put(BadgeMetric.FOLLOWERS, rs.getInt(3));
+            values.put(BadgeMetric.POSTS, rs.getInt(4));
+            values.put(BadgeMetric.STEPS_COMPLETED, rs.getInt(5));
+            values.put(BadgeMetric.STREAK_DAYS, xpLedger.streakDays(userId));
+            metrics.put(userId, values);
+        }, (Object) userIds.toArray(Long[]::new));
+        return metrics;
+    }
+
+    private void grant(List<Long> userIds, List<String> badges) {
+        if (userIds.isEmpty()) return;
+        jdbcTemplate.update("INSERT INTO user_badges (user_id, badge_name) " +
+                        "SELECT b.user_id, b.badge_name FROM unnest(?::bigint[], ?::text[]) AS b(user_id, badge_name) " +
+                        "WHERE NOT EXISTS (SELECT 1 FROM user_badges x WHERE x.user_id = b.user_id AND x.badge_name = b.badge_name)",
+                userIds.toArray(Long[]::new), badges.toArray(String[]::new));
+        new HashSet<>(userIds).forEach(userCache::invalidate);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        backfiller.shutdownNow();
+    }
+}
@@ -1,13 +1,11 @@
 package com.learning.lms.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
 import com.learning.lms.dto.ChatConversationDto;
 import com.learning.lms.entity.ChatMessage;
 import com.learning.lms.entity.User;
+import com.learning.lms.enums.MediaVariant;
 import com.learning.lms.repository.ChatMessageRepository;
 import com.learning.lms.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -24,17 +22,9 @@ public class ChatService {
 
     private final ChatMessageRepository messageRepository;
     private final UserRepository userRepository;
-
-    private Cloudinary cloudinary;
-
-    @PostConstruct
-    public void init() {
-        Map<String, String> config = new HashMap<>();
-        config.put("cloud_name", System.getenv("CLOUDINARY_CLOUD_NAME"));
-        config.put("api_key", System.getenv("CLOUDINARY_API_KEY"));
-        config.put("api_secret", System.getenv("CLOUDINARY_API_SECRET"));
-        this.cloudinary = new Cloudinary(config);
-    }
+    private final MediaUploadPipeline mediaPipeline;
+    private final MediaBlobService mediaBlobService;
+    private final SocialGraphService socialGraph;
 
     public ChatMessage save(ChatMessage message) {
         message.setChatId(getChatId(message.getSenderId(), message.getRecipientId()));
@@ -50,11 +40,9 @@ public class ChatService {
 
     // --- FIX: VISIBILITY LOGIC ---
     public List<ChatConversationDto> getConversations(Long currentUserId) {
-        User currentUser = userRepository.findById(currentUserId).orElseThrow();
-
-        // Fix: Include both people I follow AND people who follow me
-        Set<User> conversationPartners = new HashSet<>(currentUser.getFollowing());
-        conversationPartners.addAll(currentUser.getFollowers());
+        // Fix: Include both people I follow AND people who follow me (ids from the in-memory graph)
+        List<Long> partnerIds = Arrays.stream(socialGraph.connections(currentUserId)).boxed().toList();
+        List<User> conversationPartners = userRepository.findAllById(partnerIds);
 
         return conversationPartners.stream().map(partner -> {
                     String chatId = getChatId(currentUserId, partner.getId());
@@ -93,16 +81,13 @@ public class ChatService {
     }
 
     // --- FIX: VIDEO UPLOAD IN CHAT ---
+    // Runs on the shared upload pool (videos work too); the sender needs the URL back.
+    // Images are sent as their feed-size derivative, the original stays in the store.
     public String saveImage(MultipartFile file) throws IOException {
         try {
-            // Added resource_type auto to support videos in chat
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
-                    "folder", "chat_images",
-                    "resource_type", "auto"
-            ));
-            return (String) uploadResult.get("secure_url");
-        } catch (Exception e) {
-            throw new IOException("Failed to upload image to Cloudinary", e);
+            return mediaPipeline.uploadNow(file, "chat_images", null, EnumSet.of(MediaVariant.FEED)).urlFor(MediaVariant.FEED);
+        } catch (RuntimeException e) {
+            throw new IOException("Failed to upload image", e);
         }
     }
 
@@ -117,6 +102,7 @@ public class ChatService {
     @Transactional
     public ChatMessage deleteMessage(Long messageId) {
         ChatMessage msg = messageRepository.findById(messageId).orElseThrow();
+        if (msg.getType() == ChatMessage.MessageType.IMAGE) mediaBlobService.release(List.of(msg.getContent()));
         msg.setDeleted(true);
         msg.setContent("");
         msg.setType(ChatMessage.MessageType.SYSTEM);
@@ -0,0 +1,38 @@
+package com.learning.lms.service;
+
+import com.cloudinary.Cloudinary;
+import com.cloudinary.utils.ObjectUtils;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+@Service
+@ConditionalOnProperty(name = "media.store", havingValue = "cloudinary", matchIfMissing = true)
+@RequiredArgsConstructor
+public class CloudinaryMediaStore implements MediaStore {
+
+    private final Cloudinary cloudinary;
+
+    // Larger files go up in chunks of this size (Cloudinary's minimum is 5MB)
+    @Value("${media.upload.chunk-size-mb:6}")
+    private int chunkSizeMb;
+
+    // Streams from disk; the biggest buffer held is one chunk. Cloudinary picks the extension itself.
+    @Override
+    public String put(Path file, String folder, String key, String extension) throws IOException {
+        Map<String, Object> options = ObjectUtils.asMap("folder", folder, "public_id", key, "resource_type", "auto");
+        int chunkBytes = chunkSizeMb * 1024 * 1024;
+        File source = file.toFile();
+        Map result = Files.size(file) > chunkBytes
+                ? cloudinary.uploader().uploadLarge(source, options, chunkBytes)
+                : cloudinary.uploader().upload(source, options);
+        return (String) result.get("secure_url");
+    }
+}
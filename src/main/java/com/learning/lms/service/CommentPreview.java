@@ -0,0 +1,44 @@
+package com.learning.lms.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+// Cached comment count plus the latest few comments of one post (immutable; replaced on change)
+@Getter
+@AllArgsConstructor
+class CommentPreview {
+
+    private final long count;
+    private final List<Item> latest; // newest first
+
+    @Getter
+    @AllArgsConstructor
+    static class Item {
+        private final Long id;
+        private final String content;
+        private final LocalDateTime createdAt;
+        private final Long userId;
+    }
+
+    CommentPreview withAdded(Item item, int limit) {
+        if (latest.stream().anyMatch(i -> i.getId().equals(item.getId()))) return this; // loaded after the insert
+        List<Item> items = new ArrayList<>(limit);
+        items.add(item);
+        for (Item i : latest) {
+            if (items.size() == limit) break;
+            items.add(i);
+        }
+        return new CommentPreview(count + 1, List.copyOf(items));
+    }
+
+    CommentPreview withEdited(Long commentId, String content) {
+        List<Item> items = latest.stream()
+                .map(i -> i.getId().equals(commentId) ? new Item(i.getId(), content, i.getCreatedAt(), i.getUserId()) : i)
+                .toList();
+        return new CommentPreview(count, items);
+    }
+}
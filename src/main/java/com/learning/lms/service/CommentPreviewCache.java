@@ -0,0 +1,103 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.CommentAddedEvent;
+import com.learning.lms.event.CommentDeletedEvent;
+import com.learning.lms.event.CommentUpdatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.repository.CommentRepository;
+import com.learning.lms.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Comment count + latest feed.comments.preview-size comments per post, for feed items.
+ * Misses for a whole page are loaded with two IN queries; entries are patched in place
+ * when comments are added or edited and dropped when one is deleted.
+ */
+@Component
+@RequiredArgsConstructor
+public class CommentPreviewCache {
+
+    private final CommentRepository commentRepository;
+
+    @Value("${feed.comments.preview-size:3}")
+    private int previewSize;
+
+    @Value("${feed.comments.preview-cache-size:5000}")
+    private int cacheSize;
+
+    private LruCache<Long, CommentPreview> previews;
+
+    // Bumped by every comment change; a page load that overlaps one does not cache its result
+    private final AtomicLong version = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        this.previews = new LruCache<>(cacheSize);
+    }
+
+    Map<Long, CommentPreview> previewsFor(Collection<Long> postIds) {
+        Map<Long, CommentPreview> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long postId : postIds) {
+            CommentPreview cached = previews.get(postId);
+            if (cached != null) result.put(postId, cached); else missing.add(postId);
+        }
+        if (missing.isEmpty()) return result;
+
+        long seen = version.get();
+        Map<Long, CommentPreview> loaded = load(missing);
+        loaded.forEach(previews::put);
+        if (version.get() != seen) missing.forEach(previews::invalidate);
+        result.putAll(loaded);
+        return result;
+    }
+
+    private Map<Long, CommentPreview> load(List<Long> postIds) {
+        Map<Long, List<CommentPreview.Item>> latest = new HashMap<>();
+        for (CommentRepository.CommentRow row : commentRepository.findLatestByPostIds(postIds, previewSize)) {
+            latest.computeIfAbsent(row.getPostId(), id -> new ArrayList<>())
+                    .add(new CommentPreview.Item(row.getId(), row.getContent(), row.getCreatedAt(), row.getUserId()));
+        }
+        Map<Long, Long> counts = new HashMap<>();
+        commentRepository.countByPostIds(postIds).forEach(c -> counts.put(c.getPostId(), c.getCount()));
+
+        Map<Long, CommentPreview> loaded = new HashMap<>();
+        for (Long postId : postIds) {
+            loaded.put(postId, new CommentPreview(counts.getOrDefault(postId, 0L), List.copyOf(latest.getOrDefault(postId, List.of()))));
+        }
+        return loaded;
+    }
+
+    // --- MAINTENANCE (after the comment transaction commits) ---
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        version.incrementAndGet();
+        CommentPreview.Item item = new CommentPreview.Item(event.getCommentId(), event.getContent(), event.getCreatedAt(), event.getUserId());
+        previews.computeIfPresent(event.getPostId(), (postId, preview) -> preview.withAdded(item, previewSize));
+    }
+
+    @TransactionalEventListener
+    public void onCommentUpdated(CommentUpdatedEvent event) {
+        version.incrementAndGet();
+        previews.computeIfPresent(event.getPostId(), (postId, preview) -> preview.withEdited(event.getCommentId(), event.getContent()));
+    }
+
+    // An older comment may have to move into the preview: reload on next read
+    @TransactionalEventListener
+    public void onCommentDeleted(CommentDeletedEvent event) {
+        version.incrementAndGet();
+        previews.invalidate(event.getPostId());
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        previews.invalidate(event.getPostId());
+    }
+}
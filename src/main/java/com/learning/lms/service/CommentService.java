@@ -1,14 +1,24 @@
 package com.learning.lms.service;
 
+import com.learning.lms.dto.CommentDto;
 import com.learning.lms.dto.CommentRequest;
+import com.learning.lms.dto.CursorPage;
+import com.learning.lms.dto.UserSummaryDto;
 import com.learning.lms.entity.Comment;
 import com.learning.lms.entity.SkillPost;
 import com.learning.lms.entity.User;
 import com.learning.lms.enums.NotificationType;
+import com.learning.lms.event.CommentAddedEvent;
+import com.learning.lms.event.CommentDeletedEvent;
+import com.learning.lms.event.CommentUpdatedEvent;
 import com.learning.lms.repository.CommentRepository;
 import com.learning.lms.repository.SkillPostRepository;
 import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.FeedCursor;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -19,10 +29,13 @@ import java.util.Objects;
 @RequiredArgsConstructor
 public class CommentService {
 
+    private static final int MAX_THREAD_PAGE = 100;
+
     private final CommentRepository commentRepository;
     private final SkillPostRepository postRepository;
     private final UserRepository userRepository;
     private final NotificationService notificationService;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
     public Comment addComment(Long userId, Long postId, CommentRequest request) {
@@ -54,6 +67,7 @@ public class CommentService {
         comment.setUser(user);
 
         Comment savedComment = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentAddedEvent(savedComment.getId(), post.getId(), user.getId(), content, savedComment.getCreatedAt()));
 
         if (!post.getUser().getId().equals(user.getId())) {
             String message;
@@ -75,8 +89,37 @@ public class CommentService {
         return savedComment;
     }
 
-    public List<Comment> getCommentsByPostId(Long postId) {
-        return commentRepository.findByPostIdOrderByCreatedAtDesc(postId);
+    // Keyset page of a thread, newest first; limit + 1 rows tell us whether there is more
+    public CursorPage<CommentDto> getComments(Long postId, String cursor, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_THREAD_PAGE));
+        FeedCursor after = FeedCursor.decode(cursor);
+        Pageable pageable = PageRequest.of(0, size + 1);
+        List<CommentRepository.ThreadRow> rows = after == null
+                ? commentRepository.findThread(postId, pageable)
+                : commentRepository.findThreadBefore(postId, after.getCreatedAt(), after.getId(), pageable);
+
+        boolean hasMore = rows.size() > size;
+        List<CommentDto> comments = (hasMore ? rows.subList(0, size) : rows).stream()
+                .map(row -> CommentDto.builder()
+                        .id(row.getId())
+                        .content(row.getContent())
+                        .createdAt(row.getCreatedAt())
+                        .user(UserSummaryDto.builder()
+                                .id(row.getUserId())
+                                .username(row.getUsername())
+                                .firstname(row.getFirstname())
+                                .lastname(row.getLastname())
+                                .avatarUrl(row.getAvatarUrl())
+                                .level(row.getLevel())
+                                .build())
+                        .build())
+                .toList();
+        String nextCursor = null;
+        if (hasMore) {
+            CommentDto last = comments.get(comments.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(comments, nextCursor);
     }
 
     @Transactional
@@ -85,7 +128,9 @@ public class CommentService {
                 .orElseThrow(() -> new RuntimeException("Comment not found"));
 
         comment.setContent(request.getContent());
-        return commentRepository.save(comment);
+        Comment saved = commentRepository.save(comment);
+        eventPublisher.publishEvent(new CommentUpdatedEvent(commentId, comment.getPost().getId(), saved.getContent()));
+        return saved;
     }
 
     @Transactional
@@ -101,6 +146,7 @@ public class CommentService {
 
         if (isCommentOwner || isPostOwner) {
             commentRepository.deleteById(commentId);
+            eventPublisher.publishEvent(new CommentDeletedEvent(commentId, comment.getPost().getId()));
         } else {
             throw new RuntimeException("You are not authorized to delete this comment");
         }
@@ -0,0 +1,163 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.CommentDto;
+import com.learning.lms.dto.FeedItemDto;
+import com.learning.lms.dto.ReactionSummaryDto;
+import com.learning.lms.dto.UserSummaryDto;
+import com.learning.lms.enums.MediaVariant;
+import com.learning.lms.repository.LearningPlanRepository;
+import com.learning.lms.repository.SkillPostRepository;
+import com.learning.lms.repository.UserRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * Turns a page of post ids into FeedItemDtos with a fixed number of IN queries:
+ * posts, reposted originals, media, media derivatives, comment previews (cached), repost counts,
+ * authors, plan titles and the two reaction queries. The count does not grow with the page size,
+ * and no entity (or lazy association) is ever loaded.
+ */
+@Service
+@RequiredArgsConstructor
+public class FeedAssembler {
+
+    private final SkillPostRepository postRepository;
+    private final CommentPreviewCache commentPreviewCache;
+    private final UserRepository userRepository;
+    private final LearningPlanRepository learningPlanRepository;
+    private final ReactionCounterService reactionCounterService;
+    private final ImageDerivativeService derivativeService;
+
+    /** Items in the order of postIds; ids that no longer exist are skipped. */
+    public List<FeedItemDto> assemble(List<Long> postIds, Long viewerId) {
+        if (postIds.isEmpty()) return new ArrayList<>();
+
+        // 1. The posts themselves, then the originals they repost
+        Map<Long, FeedItemDto> items = new HashMap<>();
+        Map<Long, Long> authorOf = new HashMap<>();
+        Map<Long, Long> planOf = new HashMap<>();
+        Map<Long, Long> originalOf = new HashMap<>();
+        readRows(postIds, items, authorOf, planOf, originalOf);
+
+        Set<Long> originalIds = new HashSet<>(originalOf.values());
+        originalIds.removeAll(items.keySet());
+        Map<Long, FeedItemDto> originals = new HashMap<>(items);
+        if (!originalIds.isEmpty()) readRows(originalIds, originals, authorOf, planOf, new HashMap<>());
+
+        // 2. Media for posts and originals, with their derivatives
+        for (SkillPostRepository.MediaRow row : postRepository.findMediaByPostIds(originals.keySet())) {
+            FeedItemDto item = originals.get(row.getPostId());
+            if (item != null) item.getMediaUrls().add(row.getMediaUrl());
+        }
+        Set<String> mediaUrls = new HashSet<>();
+        originals.values().forEach(item -> mediaUrls.addAll(item.getMediaUrls()));
+        Map<String, Map<MediaVariant, String>> variants = derivativeService.lookup(mediaUrls);
+        for (FeedItemDto item : originals.values()) {
+            for (String url : item.getMediaUrls()) {
+                Map<MediaVariant, String> v = variants.getOrDefault(url, Map.of());
+                item.getPreviewUrls().add(v.getOrDefault(MediaVariant.FEED, url));
+                item.getThumbUrls().add(v.getOrDefault(MediaVariant.THUMB, url));
+            }
+        }
+
+        // 3. Comment previews and counts (page posts only; cached, misses cost two queries)
+        Set<Long> pageIds = items.keySet();
+        Map<Long, Long> commentAuthorOf = new HashMap<>();
+        commentPreviewCache.previewsFor(pageIds).forEach((postId, preview) -> {
+            FeedItemDto item = items.get(postId);
+            item.setCommentCount(preview.getCount());
+            for (CommentPreview.Item c : preview.getLatest()) {
+                item.getComments().add(CommentDto.builder()
+                        .id(c.getId())
+                        .content(c.getContent())
+                        .createdAt(c.getCreatedAt())
+                        .build());
+                commentAuthorOf.put(c.getId(), c.getUserId());
+            }
+        });
+        for (SkillPostRepository.RepostCount row : postRepository.countReposts(pageIds)) {
+            items.get(row.getPostId()).setRepostCount(row.getCount());
+        }
+
+        // 4. Every user referenced by a post, an original or a comment
+        Set<Long> userIds = new HashSet<>(authorOf.values());
+        userIds.addAll(commentAuthorOf.values());
+        Map<Long, UserSummaryDto> users = new HashMap<>();
+        for (UserRepository.UserSummaryView u : userRepository.findSummariesByIdIn(userIds)) {
+            users.put(u.getId(), UserSummaryDto.builder()
+                    .id(u.getId())
+                    .username(u.getUsername())
+                    .firstname(u.getFirstname())
+                    .lastname(u.getLastname())
+                    .avatarUrl(u.getAvatarUrl())
+                    .level(u.getLevel())
+                    .build());
+        }
+        originals.forEach((id, item) -> item.setUser(users.get(authorOf.get(id))));
+        for (FeedItemDto item : items.values()) {
+            item.getComments().forEach(c -> c.setUser(users.get(commentAuthorOf.get(c.getId()))));
+        }
+
+        // 5. Linked plan titles
+        if (!planOf.isEmpty()) {
+            Map<Long, String> titles = new HashMap<>();
+            learningPlanRepository.findTitlesByIdIn(new HashSet<>(planOf.values()))
+                    .forEach(p -> titles.put(p.getId(), p.getTitle()));
+            planOf.forEach((postId, planId) -> originals.get(postId).setLearningPlanTitle(titles.get(planId)));
+        }
+
+        // 6. Reactions (counts + the viewer's own)
+        Map<Long, ReactionSummaryDto> reactions = reactionCounterService.summaries(pageIds, viewerId);
+        reactions.forEach((postId, summary) -> {
+            FeedItemDto item = items.get(postId);
+            item.setReactionCounts(summary.getReactionCounts());
+            item.setMyReaction(summary.getMyReaction());
+        });
+
+        List<FeedItemDto> page = new ArrayList<>(items.size());
+        for (Long postId : postIds) {
+            FeedItemDto item = items.get(postId);
+            if (item == null) continue;
+            Long originalId = originalOf.get(postId);
+            if (originalId != null) item.setOriginalPost(asOriginal(originals.get(originalId)));
+            page.add(item);
+        }
+        return page;
+    }
+
+    private void readRows(Collection<Long> ids, Map<Long, FeedItemDto> into, Map<Long, Long> authorOf,
+                          Map<Long, Long> planOf, Map<Long, Long> originalOf) {
+        for (SkillPostRepository.FeedRow row : postRepository.findFeedRows(ids)) {
+            FeedItemDto item = new FeedItemDto();
+            item.setId(row.getId());
+            item.setDescription(row.getDescription());
+            item.setImageUrl(row.getImageUrl());
+            item.setCreatedAt(row.getCreatedAt());
+            item.setStatus(row.getStatus());
+            item.setLearningPlanId(row.getLearningPlanId());
+            into.put(row.getId(), item);
+            authorOf.put(row.getId(), row.getUserId());
+            if (row.getLearningPlanId() != null) planOf.put(row.getId(), row.getLearningPlanId());
+            if (row.getOriginalPostId() != null) originalOf.put(row.getId(), row.getOriginalPostId());
+        }
+    }
+
+    // A page post can also be reposted by another page post: embed a copy without its page-level extras
+    private FeedItemDto asOriginal(FeedItemDto source) {
+        if (source == null) return null;
+        FeedItemDto copy = new FeedItemDto();
+        copy.setId(source.getId());
+        copy.setDescription(source.getDescription());
+        copy.setImageUrl(source.getImageUrl());
+        copy.setMediaUrls(source.getMediaUrls());
+        copy.setPreviewUrls(source.getPreviewUrls());
+        copy.setThumbUrls(source.getThumbUrls());
+        copy.setCreatedAt(source.getCreatedAt());
+        copy.setUser(source.getUser());
+        copy.setLearningPlanId(source.getLearningPlanId());
+        copy.setLearningPlanTitle(source.getLearningPlanTitle());
+        return copy;
+    }
+}
@@ -0,0 +1,22 @@
+package com.learning.lms.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+// A post reference in feed order: newest sortKey first, ties broken by the higher id
+@Getter
+@AllArgsConstructor
+class FeedEntry {
+    private final long sortKey;
+    private final long postId;
+
+    static FeedEntry of(LocalDateTime createdAt, long postId) {
+        return new FeedEntry(TimelineRing.key(createdAt), postId);
+    }
+
+    boolean isNewerThan(FeedEntry other) {
+        return sortKey > other.sortKey || (sortKey == other.sortKey && postId > other.postId);
+    }
+}
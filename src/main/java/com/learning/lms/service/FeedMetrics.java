@@ -0,0 +1,58 @@
+package com.learning.lms.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+// Cost counters for the push (fan-out) and pull (read-time merge) feed paths
+@Component
+public class FeedMetrics {
+
+    private final LongAdder pushFanouts = new LongAdder();
+    private final LongAdder pushRows = new LongAdder();
+    private final LongAdder pushNanos = new LongAdder();
+    private final LongAdder skippedFanouts = new LongAdder();
+    private final LongAdder pullReads = new LongAdder();
+    private final LongAdder pullRows = new LongAdder();
+    private final LongAdder pullNanos = new LongAdder();
+    private final LongAdder mergeNanos = new LongAdder();
+    private final LongAdder fallbackReads = new LongAdder();
+
+    public void recordPush(int rows, long nanos) {
+        pushFanouts.increment();
+        pushRows.add(rows);
+        pushNanos.add(nanos);
+    }
+
+    public void recordSkippedFanout() { skippedFanouts.increment(); }
+
+    public void recordPull(int rows, long nanos) {
+        pullReads.increment();
+        pullRows.add(rows);
+        pullNanos.add(nanos);
+    }
+
+    public void recordMerge(long nanos) { mergeNanos.add(nanos); }
+
+    public void recordFallback() { fallbackReads.increment(); }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("pushFanouts", pushFanouts.sum());
+        stats.put("pushRows", pushRows.sum());
+        stats.put("pushAvgMicros", avgMicros(pushNanos.sum(), pushFanouts.sum()));
+        stats.put("skippedFanouts", skippedFanouts.sum());
+        stats.put("pullReads", pullReads.sum());
+        stats.put("pullRows", pullRows.sum());
+        stats.put("pullAvgMicros", avgMicros(pullNanos.sum(), pullReads.sum()));
+        stats.put("mergeAvgMicros", avgMicros(mergeNanos.sum(), pullReads.sum()));
+        stats.put("fallbackReads", fallbackReads.sum());
+        return stats;
+    }
+
+    private static long avgMicros(long nanos, long count) {
+        return count == 0 ? 0 : nanos / count / 1_000;
+    }
+}
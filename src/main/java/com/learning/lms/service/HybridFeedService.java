@@ -0,0 +1,113 @@
+package com.learning.lms.service;
+
+import com.learning.lms.repository.SkillPostRepository;
+import com.learning.lms.util.FeedCursor;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Home feed = pushed timeline (regular authors) k-way merged with posts pulled at read time
+ * from followed high-follower authors, whose posts are never fanned out.
+ */
+@Service
+@RequiredArgsConstructor
+public class HybridFeedService {
+
+    private final TimelineService timelineService;
+    private final SkillPostRepository postRepository;
+    private final SocialGraphService socialGraph;
+    private final FeedMetrics metrics;
+
+    public List<Long> getPostIds(Long userId, FeedCursor after, int limit) {
+        List<FeedEntry> pushed = timelineService.getEntries(userId, after, limit);
+        if (pushed == null) {
+            // Scrolled past the retained timeline window: run the plain pull query
+            metrics.recordFallback();
+            Pageable pageable = PageRequest.of(0, limit);
+            return after == null
+                    ? postRepository.findPostIdsByFollowedUsers(userId, pageable)
+                    : postRepository.findPostIdsByFollowedUsersBefore(userId, after.getCreatedAt(), after.getId(), pageable);
+        }
+        List<Long> pullAuthors = followedPullAuthors(userId);
+        if (pullAuthors.isEmpty()) return toIds(pushed);
+
+        long start = System.nanoTime();
+        Pageable pageable = PageRequest.of(0, limit);
+        List<SkillPostRepository.PostRef> refs = after == null
+                ? postRepository.findRefsByAuthors(pullAuthors, pageable)
+                : postRepository.findRefsByAuthorsBefore(pullAuthors, after.getCreatedAt(), after.getId(), pageable);
+        metrics.recordPull(refs.size(), System.nanoTime() - start);
+        return merge(List.of(pushed, toEntries(refs)), limit);
+    }
+
+    // Legacy page/size variant: merge the first (page + 1) * limit entries and skip the earlier pages.
+    // A page ending past the retained window goes straight to the pull query, so no read is deeper than it
+    public List<Long> getPostIds(Long userId, int page, int limit) {
+        if (((long) page + 1) * limit > timelineService.getCapacity()) return fallback(userId, page, limit);
+        int offset = page * limit;
+        int window = offset + limit;
+        List<FeedEntry> pushed = timelineService.getEntries(userId, 0, window);
+        if (pushed == null) return fallback(userId, page, limit);
+        List<Long> pullAuthors = followedPullAuthors(userId);
+        List<Long> merged;
+        if (pullAuthors.isEmpty()) {
+            merged = toIds(pushed);
+        } else {
+            long start = System.nanoTime();
+            List<SkillPostRepository.PostRef> refs = postRepository.findRefsByAuthors(pullAuthors, PageRequest.of(0, window));
+            metrics.recordPull(refs.size(), System.nanoTime() - start);
+            merged = merge(List.of(pushed, toEntries(refs)), window);
+        }
+        return merged.size() <= offset ? new ArrayList<>() : merged.subList(offset, Math.min(merged.size(), window));
+    }
+
+    private List<Long> fallback(Long userId, int page, int limit) {
+        metrics.recordFallback();
+        return postRepository.findPostIdsByFollowedUsers(userId, PageRequest.of(page, limit));
+    }
+
+    private List<Long> followedPullAuthors(Long userId) {
+        Set<Long> pullAuthors = timelineService.getPullAuthors();
+        if (pullAuthors.isEmpty()) return List.of();
+        return Arrays.stream(socialGraph.followingIds(userId)).boxed()
+                .filter(pullAuthors::contains)
+                .collect(Collectors.toList());
+    }
+
+    // K-way merge of newest-first sources, dropping duplicates (a post pushed before its author crossed the threshold)
+    private List<Long> merge(List<List<FeedEntry>> sources, int limit) {
+        long start = System.nanoTime();
+        PriorityQueue<int[]> heap = new PriorityQueue<>((a, b) -> {
+            FeedEntry x = sources.get(a[0]).get(a[1]);
+            FeedEntry y = sources.get(b[0]).get(b[1]);
+            return x.isNewerThan(y) ? -1 : (y.isNewerThan(x) ? 1 : 0);
+        });
+        for (int i = 0; i < sources.size(); i++) {
+            if (!sources.get(i).isEmpty()) heap.add(new int[]{i, 0});
+        }
+        Set<Long> seen = new HashSet<>();
+        List<Long> result = new ArrayList<>(limit);
+        while (!heap.isEmpty() && result.size() < limit) {
+            int[] head = heap.poll();
+            List<FeedEntry> source = sources.get(head[0]);
+            long postId = source.get(head[1]).getPostId();
+            if (seen.add(postId)) result.add(postId);
+            if (head[1] + 1 < source.size()) heap.add(new int[]{head[0], head[1] + 1});
+        }
+        metrics.recordMerge(System.nanoTime() - start);
+        return result;
+    }
+
+    private static List<Long> toIds(List<FeedEntry> entries) {
+        return entries.stream().map(FeedEntry::getPostId).collect(Collectors.toList());
+    }
+
+    private static List<FeedEntry> toEntries(List<SkillPostRepository.PostRef> refs) {
+        return refs.stream().map(r -> FeedEntry.of(r.getCreatedAt(), r.getId())).collect(Collectors.toList());
+    }
+}
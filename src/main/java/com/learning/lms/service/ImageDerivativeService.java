@@ -0,0 +1,188 @@
+package com.learning.lms.service;
+
+import com.learning.lms.entity.MediaDerivative;
+import com.learning.lms.enums.MediaVariant;
+import com.learning.lms.repository.MediaDerivativeRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import net.coobird.thumbnailator.Thumbnails;
+import net.coobird.thumbnailator.geometry.Positions;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.*;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Downscaled copies of uploaded images (see MediaVariant), rendered on a bounded pool.
+ * Each image is decoded once, already subsampled to about twice the largest variant (so a huge photo never
+ * lands in the heap at full size), then every variant is resized from the previous, larger one.
+ * Variants are stored under keys derived from the original's SHA-256, so the same picture always maps
+ * to the same derivative objects, and recorded in media_derivatives against the original's URL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageDerivativeService {
+
+    private static final String FOLDER = "derivatives";
+    private static final float JPEG_QUALITY = 0.82f;
+
+    private final MediaStore mediaStore;
+    private final MediaDerivativeRepository derivativeRepository;
+
+    @Value("${media.derivatives.workers:2}")
+    private int workers;
+
+    @Value("${media.derivatives.queue:32}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+    private String format; // webp when an ImageIO writer is installed, otherwise jpg
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "media-derive-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        format = ImageIO.getImageWritersByFormatName("webp").hasNext() ? "webp" : "jpg";
+    }
+
+    /**
+     * Renders and stores the variants of an image file; completes with an empty map for anything that is
+     * not a decodable image, and never fails (a missing derivative just means clients get the original).
+     * The source file is only read, and is done with once the future completes. digest is the source's SHA-256.
+     */
+    public CompletableFuture<Map<MediaVariant, String>> derive(Path source, String digest, Set<MediaVariant> variants) {
+        if (variants.isEmpty()) return CompletableFuture.completedFuture(Map.of());
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return renderAndStore(source, digest, variants);
+                } catch (Exception e) {
+                    log.warn("Could not derive variants of {}", source, e);
+                    return Map.<MediaVariant, String>of();
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            log.warn("Derivative queue full, serving originals for {}", source);
+            return CompletableFuture.completedFuture(Map.of());
+        }
+    }
+
+    public void record(String sourceUrl, Map<MediaVariant, String> variants) {
+        if (variants.isEmpty()) return;
+        List<MediaDerivative> rows = new ArrayList<>();
+        variants.forEach((variant, url) -> rows.add(new MediaDerivative(sourceUrl, variant, url)));
+        derivativeRepository.saveAll(rows);
+    }
+
+    /** Variant URLs per original URL, one query; originals without derivatives are absent. */
+    public Map<String, Map<MediaVariant, String>> lookup(Collection<String> sourceUrls) {
+        Map<String, Map<MediaVariant, String>> found = new HashMap<>();
+        if (sourceUrls.isEmpty()) return found;
+        for (MediaDerivative d : derivativeRepository.findBySourceUrlIn(sourceUrls)) {
+            found.computeIfAbsent(d.getSourceUrl(), k -> new EnumMap<>(MediaVariant.class)).put(d.getVariant(), d.getUrl());
+        }
+        return found;
+    }
+
+    // --- RENDERING (worker threads) ---
+    private Map<MediaVariant, String> renderAndStore(Path source, String digest, Set<MediaVariant> variants) throws IOException {
+        List<MediaVariant> ordered = variants.stream()
+                .sorted(Comparator.comparingInt(MediaVariant::getSize).reversed())
+                .toList();
+        BufferedImage base = decode(source, ordered.get(0).getSize());
+        if (base == null) return Map.of();
+
+        Map<MediaVariant, String> urls = new EnumMap<>(MediaVariant.class);
+        for (MediaVariant variant : ordered) {
+            BufferedImage rendered = resize(base, variant);
+            if (!variant.isSquare()) base = rendered; // the next, smaller variant starts from this one
+            Path out = Files.createTempFile("derive-", "." + format);
+            try {
+                encode(rendered, out);
+                urls.put(variant, mediaStore.put(out, FOLDER, digest + "_" + variant.name().toLowerCase(), "." + format));
+            } finally {
+                Files.deleteIfExists(out);
+            }
+        }
+        return urls;
+    }
+
+    // First, cheap step: subsample while decoding; always opaque RGB (JPEG has no alpha)
+    private BufferedImage decode(Path source, int largest) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(source.toFile())) {
+            if (in == null) return null;
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) return null;
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int longest = Math.max(reader.getWidth(0), reader.getHeight(0));
+                ImageReadParam param = reader.getDefaultReadParam();
+                int step = Math.max(1, longest / (largest * 2));
+                if (step > 1) param.setSourceSubsampling(step, step, 0, 0);
+                BufferedImage decoded = reader.read(0, param);
+                if (decoded.getType() == BufferedImage.TYPE_INT_RGB) return decoded;
+                BufferedImage rgb = new BufferedImage(decoded.getWidth(), decoded.getHeight(), BufferedImage.TYPE_INT_RGB);
+                Graphics2D g = rgb.createGraphics();
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, rgb.getWidth(), rgb.getHeight());
+                g.drawImage(decoded, 0, 0, null);
+                g.dispose();
+                return rgb;
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    // Thumbnailator halves progressively for large reductions; images are never upscaled
+    private BufferedImage resize(BufferedImage image, MediaVariant variant) throws IOException {
+        int size = variant.getSize();
+        if (variant.isSquare()) {
+            int side = Math.min(size, Math.min(image.getWidth(), image.getHeight()));
+            return Thumbnails.of(image).crop(Positions.CENTER).size(side, side).asBufferedImage();
+        }
+        if (Math.max(image.getWidth(), image.getHeight()) <= size) return image;
+        return Thumbnails.of(image).size(size, size).asBufferedImage();
+    }
+
+    private void encode(BufferedImage image, Path out) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        try (ImageOutputStream stream = ImageIO.createImageOutputStream(out.toFile())) {
+            writer.setOutput(stream);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null) param.setCompressionType(param.getCompressionTypes()[0]);
+                param.setCompressionQuality(JPEG_QUALITY);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
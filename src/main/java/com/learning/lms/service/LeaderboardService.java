@@ -0,0 +1,175 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.LeaderboardEntryDto;
+import com.learning.lms.event.XpAwardedEvent;
+import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.FenwickTree;
+import com.learning.lms.util.SortedLongs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * XP ranking held in memory as an order-statistic structure: a Fenwick tree counting users per XP value,
+ * plus the sorted ids of each XP value. Rank is "users with more XP + 1" (ties share a rank), a page
+ * starts with a k-th lookup, and both are O(log maxXp); within one XP value users are ordered by id.
+ * Loaded from _user once and kept current from XpAwardedEvent after each commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class LeaderboardService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    // Guarded by this
+    private final FenwickTree counts = new FenwickTree(1024);
+    private final Map<Integer, long[]> idsByXp = new HashMap<>();
+    private final Map<Long, Integer> xpByUser = new HashMap<>();
+    private boolean loaded;
+
+    record Ranked(long userId, int xp, long rank) {}
+
+    // --- READS ---
+    public List<LeaderboardEntryDto> page(int page, int size) {
+        return hydrate(slice((long) page * size, size));
+    }
+
+    /** The user's own entry; null for an unknown user. */
+    public LeaderboardEntryDto rankOf(long userId) {
+        Ranked me;
+        synchronized (this) {
+            if (!track(userId)) return null;
+            int xp = xpByUser.get(userId);
+            me = new Ranked(userId, xp, counts.above(xp) + 1);
+        }
+        List<LeaderboardEntryDto> entries = hydrate(List.of(me));
+        return entries.isEmpty() ? null : entries.get(0);
+    }
+
+    /** Up to radius users either side of the user, in ranking order. */
+    public List<LeaderboardEntryDto> around(long userId, int radius) {
+        List<Ranked> window;
+        synchronized (this) {
+            if (!track(userId)) return List.of();
+            int xp = xpByUser.get(userId);
+            long position = counts.above(xp) + Math.max(0, Arrays.binarySearch(idsByXp.get(xp), userId));
+            long from = Math.max(0, position - radius);
+            window = slice(from, (int) (position - from) + radius + 1);
+        }
+        return hydrate(window);
+    }
+
+    // Positions are 0-based from the top; each XP value is found with one k-th lookup
+    private synchronized List<Ranked> slice(long offset, int limit) {
+        if (!loaded) load();
+        List<Ranked> out = new ArrayList<>(limit);
+        long total = counts.total();
+        long position = offset;
+        while (out.size() < limit && position < total) {
+            int xp = counts.select(total - position); // ascending k-th; the top is the largest
+            long above = counts.above(xp);
+            long[] ids = idsByXp.get(xp);
+            for (int i = (int) (position - above); i < ids.length && out.size() < limit; i++, position++) {
+                out.add(new Ranked(ids[i], xp, above + 1));
+            }
+        }
+        return out;
+    }
+
+    // One projection query for the cards; XP comes from the index so a page is internally consistent
+    List<LeaderboardEntryDto> hydrate(List<Ranked> ranked) {
+        if (ranked.isEmpty()) return List.of();
+        Map<Long, UserRepository.UserSummaryView> users = userRepository.findSummariesByIdIn(
+                ranked.stream().map(Ranked::userId).toList()).stream()
+                .collect(Collectors.toMap(UserRepository.UserSummaryView::getId, Function.identity()));
+        List<LeaderboardEntryDto> out = new ArrayList<>(ranked.size());
+        for (Ranked r : ranked) {
+            UserRepository.UserSummaryView u = users.get(r.userId());
+            if (u == null) continue; // deleted meanwhile
+            out.add(LeaderboardEntryDto.builder()
+                    .rank(r.rank())
+                    .id(u.getId())
+                    .username(u.getUsername())
+                    .firstname(u.getFirstname())
+                    .lastname(u.getLastname())
+                    .avatarUrl(u.getAvatarUrl())
+                    .level(u.getLevel())
+                    .xp(r.xp())
+                    .build());
+        }
+        return out;
+    }
+
+    // --- WRITES ---
+    @TransactionalEventListener
+    public synchronized void onXpAwarded(XpAwardedEvent event) {
+        if (!loaded) load();
+        set(event.getUserId(), event.getTotalXp());
+    }
+
+    public synchronized void removeUser(long userId) {
+        Integer xp = xpByUser.remove(userId);
+        if (xp == null) return;
+        counts.add(xp, -1);
+        idsByXp.computeIfPresent(xp, (k, ids) -> emptyToNull(SortedLongs.remove(ids, userId)));
+    }
+
+    private void set(long userId, int xp) {
+        Integer old = xpByUser.put(userId, xp);
+        if (old != null) {
+            if (old == xp) return;
+            counts.add(old, -1);
+            idsByXp.computeIfPresent(old, (k, ids) -> emptyToNull(SortedLongs.remove(ids, userId)));
+        }
+        counts.add(xp, 1);
+        idsByXp.merge(xp, new long[]{userId}, (ids, one) -> SortedLongs.insert(ids, userId));
+    }
+
+    // Accounts created since the load (registration does not go through awardXp) are added on first lookup
+    private boolean track(long userId) {
+        if (!loaded) load();
+        if (xpByUser.containsKey(userId)) return true;
+        List<Integer> xp = jdbcTemplate.queryForList("SELECT xp FROM _user WHERE id = ?", Integer.class, userId);
+        if (xp.isEmpty()) return false;
+        set(userId, Math.max(0, xp.get(0)));
+        return true;
+    }
+
+    private static long[] emptyToNull(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    // --- LOAD ---
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void warmUp() {
+        if (!loaded) load();
+    }
+
+    // Ids are collected per XP value and sorted once (inserting one by one would be quadratic for big buckets)
+    private void load() {
+        long start = System.nanoTime();
+        Map<Integer, List<Long>> byXp = new HashMap<>();
+        jdbcTemplate.query("SELECT id, xp FROM _user", rs -> {
+            long userId = rs.getLong(1);
+            int xp = Math.max(0, rs.getInt(2));
+            if (xpByUser.putIfAbsent(userId, xp) == null) byXp.computeIfAbsent(xp, k -> new ArrayList<>()).add(userId);
+        });
+        byXp.forEach((xp, ids) -> {
+            long[] values = ids.stream().mapToLong(Long::longValue).toArray();
+            idsByXp.put(xp, SortedLongs.normalize(values, values.length));
+            counts.add(xp, values.length);
+        });
+        loaded = true;
+        log.info("Leaderboard loaded {} users in {} ms", xpByUser.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+}
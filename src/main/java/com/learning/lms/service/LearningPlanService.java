@@ -7,10 +7,12 @@ import com.learning.lms.dto.PlanStepRequest;
 import com.learning.lms.entity.LearningPlan;
 import com.learning.lms.entity.PlanStep;
 import com.learning.lms.entity.User;
+import com.learning.lms.event.PlanChangedEvent;
 import com.learning.lms.repository.LearningPlanRepository;
 import com.learning.lms.repository.PlanStepRepository;
 import com.learning.lms.repository.UserRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,6 +29,7 @@ public class LearningPlanService {
     private final LearningPlanRepository planRepository;
     private final UserRepository userRepository;
     private final PlanStepRepository stepRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     public List<LearningPlanSummaryDto> getUserPlans(Long userId) {
         List<LearningPlan> plans = planRepository.findByUserIdOrderByCreatedAtDesc(userId);
@@ -114,7 +117,9 @@ public class LearningPlanService {
                 plan.getSteps().add(step);
             }
         }
-        return planRepository.save(plan);
+        LearningPlan saved = planRepository.save(plan);
+        eventPublisher.publishEvent(new PlanChangedEvent(saved.getId(), user.getId()));
+        return saved;
     }
 
     @Transactional
@@ -127,13 +132,20 @@ public class LearningPlanService {
     }
 
     @Transactional
-    public void deletePlan(Long planId) { planRepository.deleteById(planId); }
+    public void deletePlan(Long planId) {
+        planRepository.findById(planId).ifPresent(plan -> {
+            planRepository.delete(plan);
+            if (plan.getUser() != null) eventPublisher.publishEvent(new PlanChangedEvent(planId, plan.getUser().getId()));
+        });
+    }
 
     @Transactional
     public void toggleStep(Long stepId) {
         PlanStep step = stepRepository.findById(stepId).orElseThrow(() -> new RuntimeException("Step not found"));
         step.setCompleted(!step.isCompleted());
         stepRepository.save(step);
+        LearningPlan plan = step.getLearningPlan();
+        if (plan != null && plan.getUser() != null) eventPublisher.publishEvent(new PlanChangedEvent(plan.getId(), plan.getUser().getId()));
     }
 
     @Transactional
@@ -164,7 +176,9 @@ public class LearningPlanService {
             newStep.setLearningPlan(clone);
             clone.getSteps().add(newStep);
         }
-        return planRepository.save(clone);
+        LearningPlan saved = planRepository.save(clone);
+        eventPublisher.publishEvent(new PlanChangedEvent(saved.getId(), newOwnerId));
+        return saved;
     }
 
     private LearningPlanSummaryDto mapToSummaryDto(LearningPlan plan) {
@@ -0,0 +1,51 @@
+package com.learning.lms.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+/**
+ * Self-hosted media: files live under media.local.root and are served by MediaController.
+ * Keys are never reused, so a stored file never changes (MediaController relies on that for ETags).
+ */
+@Service
+@ConditionalOnProperty(name = "media.store", havingValue = "local")
+public class LocalMediaStore implements MediaStore {
+
+    @Value("${media.local.root:uploads}")
+    private String rootDir;
+
+    @Value("${media.local.public-url:http://localhost:8080/uploads}")
+    private String publicUrl;
+
+    private Path root;
+
+    @PostConstruct
+    public void init() throws IOException {
+        root = Files.createDirectories(Paths.get(rootDir).toAbsolutePath().normalize());
+    }
+
+    @Override
+    public String put(Path file, String folder, String key, String extension) throws IOException {
+        String name = key + extension;
+        Path target = resolve(folder + "/" + name);
+        if (target == null) throw new IOException("Invalid media key: " + folder + "/" + name);
+        Files.createDirectories(target.getParent());
+        try {
+            Files.move(file, target, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) { // temp dir on another filesystem
+            Files.copy(file, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return publicUrl + "/" + folder + "/" + name;
+    }
+
+    /** The file for a path below the root, or null when the path escapes it. */
+    public Path resolve(String relativePath) {
+        Path resolved = root.resolve(relativePath).normalize();
+        return resolved.startsWith(root) && !resolved.equals(root) ? resolved : null;
+    }
+}
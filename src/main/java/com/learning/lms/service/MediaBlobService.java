@@ -0,0 +1,56 @@
+package com.learning.lms.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Content-hash deduplication for uploads (table media_blob). A staged file whose SHA-256 is already
+ * known is never uploaded again: the existing URL is reused and its reference count bumped.
+ * Each statement is a single atomic upsert/update, so no transaction is needed around the upload.
+ */
+@Service
+@RequiredArgsConstructor
+public class MediaBlobService {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** The stored URL for this content, taking a reference on it; empty when it was never uploaded. */
+    public Optional<String> acquire(String digest) {
+        List<String> urls = jdbcTemplate.queryForList(
+                "UPDATE media_blob SET ref_count = ref_count + 1 WHERE digest = ? RETURNING url", String.class, digest);
+        return urls.stream().findFirst();
+    }
+
+    /**
+     * Records a fresh upload with one reference. If the same content was registered concurrently,
+     * that URL wins (and is returned) so every user of the content shares one copy.
+     */
+    public String register(String digest, String url, long size) {
+        return jdbcTemplate.queryForObject(
+                "INSERT INTO media_blob (digest, url, size, ref_count, created_at) VALUES (?, ?, ?, 1, now()) " +
+                        "ON CONFLICT (digest) DO UPDATE SET ref_count = media_blob.ref_count + 1 RETURNING url",
+                String.class, digest, url, size);
+    }
+
+    /**
+     * Drops one reference per URL occurrence (a post may attach the same content twice); derivative URLs
+     * (e.g. an avatar) count against their original. Counted per URL first: UPDATE ... FROM changes each
+     * row at most once, however many joined rows match it.
+     */
+    public void release(Collection<String> urls) {
+        if (urls.isEmpty()) return;
+        String[] array = urls.toArray(String[]::new);
+        jdbcTemplate.update("UPDATE media_blob b SET ref_count = GREATEST(b.ref_count - r.n, 0) FROM (" +
+                        "SELECT x.url, COUNT(*) AS n FROM (" +
+                        "SELECT u.url FROM unnest(?::text[]) AS u(url) " +
+                        "UNION ALL SELECT d.source_url FROM unnest(?::text[]) AS u(url) JOIN media_derivatives d ON d.url = u.url" +
+                        ") x GROUP BY x.url) r " +
+                        "WHERE b.url = r.url AND b.ref_count > 0",
+                array, array);
+    }
+}
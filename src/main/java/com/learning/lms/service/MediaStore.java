@@ -0,0 +1,18 @@
+package com.learning.lms.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Where uploaded media ends up. Selected with media.store: "cloudinary" (default) or "local",
+ * which keeps files under media.local.root and serves them from /uploads (see MediaController).
+ * Implementations may move the file; callers must not rely on it existing afterwards.
+ */
+public interface MediaStore {
+
+    /**
+     * Stores the file as folder/key (plus extension, e.g. ".jpg", may be empty) and returns the URL clients load it from.
+     * Called from MediaUploadPipeline's workers, never inside a transaction.
+     */
+    String put(Path file, String folder, String key, String extension) throws IOException;
+}
@@ -0,0 +1,256 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.MediaVariant;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Uploads media to the MediaStore on a bounded pool, never on a request thread and never inside a transaction.
+ * Callers stage() the request's parts first (multipart temp files are deleted when the request ends),
+ * then get a future per file. A full queue rejects the upload up front instead of piling up work.
+ * No file is ever held in the heap: parts go straight to disk (file-size-threshold=0), staging stream-copies
+ * them (hashing on the way), and the store reads from disk (Cloudinary: chunks of at most chunk-size bytes).
+ * Content that was uploaded before is not uploaded again (MediaBlobService).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MediaUploadPipeline {
+
+    private final MediaStore mediaStore;
+    private final ImageDerivativeService derivatives;
+    private final MediaBlobService blobService;
+    private final UploadAdmission admission;
+
+    @Value("${media.upload.workers:4}")
+    private int workers;
+
+    @Value("${media.upload.queue:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger seq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(workers, workers, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), r -> {
+            Thread t = new Thread(r, "media-upload-" + seq.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    // --- STAGING (request thread) ---
+    public List<StagedMedia> stage(List<MultipartFile> files) {
+        List<StagedMedia> staged = new ArrayList<>();
+        if (files == null) return staged;
+        try {
+            for (MultipartFile file : files) {
+                if (!file.isEmpty()) staged.add(stage(file));
+            }
+            return staged;
+        } catch (RuntimeException e) {
+            discard(staged);
+            throw e;
+        }
+    }
+
+    // Copied through a small buffer, hashing as it goes, so deduplication costs no second read
+    public StagedMedia stage(MultipartFile file) {
+        Path temp = null;
+        try {
+            temp = Files.createTempFile("media-", ".upload");
+            MessageDigest sha = MessageDigest.getInstance("SHA-256");
+            try (InputStream in = new DigestInputStream(file.getInputStream(), sha);
+                 OutputStream out = Files.newOutputStream(temp)) {
+                in.transferTo(out);
+            }
+            UploadAdmission.Ticket ticket = admission.current();
+            if (ticket != null) ticket.retain();
+            return new StagedMedia(temp, file.getOriginalFilename(), file.getContentType(), file.getSize(),
+                    HexFormat.of().formatHex(sha.digest()), ticket);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            if (temp != null) temp.toFile().delete();
+            throw new RuntimeException("Failed to read upload: " + e.getMessage());
+        }
+    }
+
+    // --- UPLOAD (worker threads) ---
+    /**
+     * Stores the file (a null key gets a random one) after rendering the requested variants of it, if it is an image.
+     * Known content is not stored again: it completes with the existing URL, rendering only the requested variants
+     * that content has no derivative for yet. The staged file is deleted either way. On success the caller owns one
+     * reference on the URL (MediaBlobService.release gives it back); a failed upload holds none.
+     */
+    public CompletableFuture<StoredMedia> upload(StagedMedia media, String folder, String key, Set<MediaVariant> variants) {
+        boolean image = media.getContentType() != null && media.getContentType().startsWith("image/");
+        Optional<String> existing = Optional.empty();
+        Map<MediaVariant, String> known;
+        try {
+            existing = blobService.acquire(media.getDigest());
+            known = existing.isPresent() ? derivatives.lookup(List.of(existing.get())).getOrDefault(existing.get(), Map.of()) : Map.of();
+        } catch (RuntimeException e) {
+            existing.ifPresent(url -> blobService.release(List.of(url)));
+            discard(List.of(media));
+            throw e;
+        }
+        if (existing.isPresent()) {
+            String url = existing.get();
+            Set<MediaVariant> missing = missing(variants, known);
+            if (!image || missing.isEmpty()) {
+                discard(List.of(media));
+                return CompletableFuture.completedFuture(new StoredMedia(url, known));
+            }
+            // e.g. a post photo (feed, thumb) uploaded again as an avatar: only the avatar crop is rendered
+            return submit(media, url, () -> {
+                Map<MediaVariant, String> derived = derivatives.derive(media.getFile(), media.getDigest(), missing).join();
+                recordVariants(url, derived);
+                return new StoredMedia(url, merged(known, derived));
+            });
+        }
+        String storedKey = key != null ? key : UUID.randomUUID().toString();
+        return submit(media, null, () -> {
+            try {
+                // Rendered before the store runs: a local store moves the staged file away
+                Map<MediaVariant, String> derived = image ? derivatives.derive(media.getFile(), media.getDigest(), variants).join() : Map.of();
+                String stored = mediaStore.put(media.getFile(), folder, storedKey, extensionOf(media.getOriginalFilename()));
+                String url = blobService.register(media.getDigest(), stored, media.getSize());
+                if (!url.equals(stored)) { // same content finished first elsewhere: share that copy, adding what it lacks
+                    Map<MediaVariant, String> winner = derivatives.lookup(List.of(url)).getOrDefault(url, Map.of());
+                    Map<MediaVariant, String> added = new EnumMap<>(MediaVariant.class);
+                    derived.forEach((variant, derivedUrl) -> { if (!winner.containsKey(variant)) added.put(variant, derivedUrl); });
+                    recordVariants(url, added);
+                    return new StoredMedia(url, merged(winner, added));
+                }
+                recordVariants(url, derived);
+                return new StoredMedia(url, derived);
+            } catch (IOException e) {
+                throw new CompletionException(e);
+            }
+        });
+    }
+
+    // Runs the work on the pool; the staged file is discarded when it ends, a reference already taken is released if it cannot run
+    private CompletableFuture<StoredMedia> submit(StagedMedia media, String acquiredUrl, Supplier<StoredMedia> work) {
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                try {
+                    return work.get();
+                } finally {
+                    discard(List.of(media));
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            if (acquiredUrl != null) blobService.release(List.of(acquiredUrl));
+            discard(List.of(media));
+            throw new RuntimeException("Too many uploads in progress, try again shortly");
+        }
+    }
+
+    private static Set<MediaVariant> missing(Set<MediaVariant> requested, Map<MediaVariant, String> known) {
+        Set<MediaVariant> missing = EnumSet.noneOf(MediaVariant.class);
+        for (MediaVariant variant : requested) if (!known.containsKey(variant)) missing.add(variant);
+        return missing;
+    }
+
+    private static Map<MediaVariant, String> merged(Map<MediaVariant, String> known, Map<MediaVariant, String> added) {
+        Map<MediaVariant, String> all = new EnumMap<>(MediaVariant.class);
+        all.putAll(known);
+        all.putAll(added);
+        return all;
+    }
+
+    /**
+     * All files in parallel; original URLs come back in the order the files were given. All or nothing: if any file
+     * fails (or cannot be queued), the references its siblings took are released as they complete.
+     */
+    public CompletableFuture<List<String>> uploadAll(List<StagedMedia> media, String folder, Set<MediaVariant> variants) {
+        List<CompletableFuture<StoredMedia>> futures = new ArrayList<>();
+        try {
+            for (StagedMedia m : media) futures.add(upload(m, folder, null, variants));
+        } catch (RuntimeException e) {
+            discard(media.subList(futures.size() + 1, media.size())); // upload() already discarded the rejected one
+            futures.forEach(f -> f.thenAccept(stored -> blobService.release(List.of(stored.getUrl()))));
+            throw e;
+        }
+        return CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                .handle((done, error) -> {
+                    if (error == null) return futures.stream().map(f -> f.join().getUrl()).toList();
+                    List<String> uploaded = futures.stream()
+                            .filter(f -> !f.isCompletedExceptionally())
+                            .map(f -> f.join().getUrl())
+                            .toList();
+                    blobService.release(uploaded);
+                    throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                });
+    }
+
+    /** Blocks the caller until the upload finishes; for endpoints that answer with the URL. */
+    public StoredMedia uploadNow(MultipartFile file, String folder, String key, Set<MediaVariant> variants) {
+        try {
+            return upload(stage(file), folder, key, variants).join();
+        } catch (CompletionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Upload failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    // Derivatives are an optimisation: losing their rows only means clients get the original
+    private void recordVariants(String url, Map<MediaVariant, String> derived) {
+        try {
+            derivatives.record(url, derived);
+        } catch (RuntimeException e) {
+            log.warn("Could not record derivatives of {}", url, e);
+        }
+    }
+
+    // ".mp4" from "clip.MP4"; the frontend tells videos from images by the URL's extension
+    static String extensionOf(String filename) {
+        if (filename == null) return "";
+        int dot = filename.lastIndexOf('.');
+        if (dot < 0 || dot == filename.length() - 1) return "";
+        String ext = filename.substring(dot).toLowerCase();
+        return ext.matches("\\.[a-z0-9]{1,8}") ? ext : "";
+    }
+
+    /** Deletes staged files that will not be uploaded; gives their bytes back to the admission budget. Once per file. */
+    public void discard(List<StagedMedia> media) {
+        for (StagedMedia m : media) {
+            try {
+                Files.deleteIfExists(m.getFile());
+            } catch (IOException e) {
+                log.warn("Could not delete staged upload {}", m.getFile(), e);
+            } finally {
+                if (m.getTicket() != null) m.getTicket().release();
+            }
+        }
+    }
+
+    // Let running uploads finish so their posts do not stay PENDING
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) executor.shutdownNow();
+    }
+}
@@ -0,0 +1,40 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.ReactionType;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Coalesced toggles of one user on one post, kept as a function of the persisted state.
+ * Every toggle sequence maps "state == firstType" to one outcome and anything else to another,
+ * so any number of toggles folds into three fields and flush never has to replay them.
+ */
+@Getter
+@AllArgsConstructor
+class PendingReaction {
+
+    private final ReactionType firstType;
+    private final ReactionType ifFirst;   // outcome when the persisted reaction is firstType
+    private final ReactionType otherwise; // outcome for no reaction / any other type
+
+    static PendingReaction of(ReactionType type) {
+        return new PendingReaction(type, null, type);
+    }
+
+    static ReactionType toggle(ReactionType state, ReactionType type) {
+        return state == type ? null : type;
+    }
+
+    PendingReaction toggle(ReactionType type) {
+        return new PendingReaction(firstType, toggle(ifFirst, type), toggle(otherwise, type));
+    }
+
+    // this, followed by later
+    PendingReaction then(PendingReaction later) {
+        return new PendingReaction(firstType, later.resolve(ifFirst), later.resolve(otherwise));
+    }
+
+    ReactionType resolve(ReactionType persisted) {
+        return persisted == firstType ? ifFirst : otherwise;
+    }
+}
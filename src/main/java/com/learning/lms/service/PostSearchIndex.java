@@ -0,0 +1,224 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.event.PostUpdatedEvent;
+import com.learning.lms.repository.SkillPostRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over SkillPost.description with BM25 ranking and prefix matching.
+ * Kept current from post events; rebuilt in chunks on a background thread at startup,
+ * so the app reports ready immediately and search results fill in as the rebuild progresses.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class PostSearchIndex {
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.7; // "reac" should rank "reac" above "react"
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    private static final int REBUILD_CHUNK = 500;
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final SkillPostRepository postRepository;
+
+    // term -> (postId -> term frequency); sorted so prefix lookups are a subMap
+    private final TreeMap<String, Map<Long, Integer>> postings = new TreeMap<>();
+    // postId -> its distinct terms, needed to unindex on update/delete
+    private final Map<Long, String[]> docTerms = new HashMap<>();
+    private final Map<Long, Integer> docLengths = new HashMap<>();
+    private long totalLength;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Posts changed by live events while the startup rebuild runs; the rebuild must not overwrite them.
+    // Guarded by the write lock, so a live change and the rebuild's check-and-index never interleave
+    private final Set<Long> touchedDuringRebuild = new HashSet<>();
+    private boolean rebuilding;
+
+    // --- INCREMENTAL MAINTENANCE ---
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        index(event.getPostId(), event.getDescription());
+    }
+
+    @TransactionalEventListener
+    public void onPostUpdated(PostUpdatedEvent event) {
+        index(event.getPostId(), event.getDescription());
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        remove(event.getPostId());
+    }
+
+    // Live changes: marked as touched in the same critical section that applies them
+    public void index(Long postId, String text) {
+        List<String> tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) touchedDuringRebuild.add(postId);
+            indexLocked(postId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(Long postId) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding) touchedDuringRebuild.add(postId);
+            removeLocked(postId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Rebuild rows: a row read before a live change of its post must not overwrite that change
+    private void indexIfUntouched(Long postId, String text) {
+        List<String> tokens = tokenize(text);
+        lock.writeLock().lock();
+        try {
+            if (!touchedDuringRebuild.contains(postId)) indexLocked(postId, tokens);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void indexLocked(Long postId, List<String> tokens) {
+        removeLocked(postId);
+        if (tokens.isEmpty()) return;
+        Map<String, Integer> tf = new HashMap<>();
+        for (String token : tokens) tf.merge(token, 1, Integer::sum);
+        tf.forEach((term, count) -> postings.computeIfAbsent(term, t -> new HashMap<>()).put(postId, count));
+        docTerms.put(postId, tf.keySet().toArray(new String[0]));
+        docLengths.put(postId, tokens.size());
+        totalLength += tokens.size();
+    }
+
+    private void removeLocked(Long postId) {
+        String[] terms = docTerms.remove(postId);
+        if (terms == null) return;
+        for (String term : terms) {
+            Map<Long, Integer> docs = postings.get(term);
+            if (docs == null) continue;
+            docs.remove(postId);
+            if (docs.isEmpty()) postings.remove(term);
+        }
+        totalLength -= docLengths.remove(postId);
+    }
+
+    // --- QUERY ---
+
+    /** Ranked post ids for one page of results. */
+    public List<Long> search(String query, int page, int size) {
+        List<String> queryTerms = tokenize(query);
+        if (queryTerms.isEmpty()) return List.of();
+
+        Map<Long, Double> scores = new HashMap<>();
+        lock.readLock().lock();
+        try {
+            int docCount = docLengths.size();
+            if (docCount == 0) return List.of();
+            double avgLength = (double) totalLength / docCount;
+            for (String queryTerm : new LinkedHashSet<>(queryTerms)) {
+                score(queryTerm, 1.0, postings.get(queryTerm), docCount, avgLength, scores);
+                int expanded = 0;
+                for (Map.Entry<String, Map<Long, Integer>> e : postings.subMap(queryTerm, false, queryTerm + Character.MAX_VALUE, false).entrySet()) {
+                    if (++expanded > MAX_PREFIX_EXPANSION) break;
+                    score(e.getKey(), PREFIX_WEIGHT, e.getValue(), docCount, avgLength, scores);
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return topPage(scores, page, size);
+    }
+
+    private void score(String term, double weight, Map<Long, Integer> docs, int docCount, double avgLength, Map<Long, Double> scores) {
+        if (docs == null || docs.isEmpty()) return;
+        double idf = Math.log(1 + (docCount - docs.size() + 0.5) / (docs.size() + 0.5));
+        docs.forEach((postId, tf) -> {
+            double norm = K1 * (1 - B + B * docLengths.get(postId) / avgLength);
+            scores.merge(postId, weight * idf * (tf * (K1 + 1)) / (tf + norm), Double::sum);
+        });
+    }
+
+    // Bounded heap: only (page + 1) * size candidates are ever kept sorted; a page past the matches is empty
+    private List<Long> topPage(Map<Long, Double> scores, int requestedPage, int requestedSize) {
+        int size = Math.max(1, Math.min(requestedSize, MAX_PAGE_SIZE));
+        long from = (long) Math.max(0, requestedPage) * size;
+        if (from >= scores.size()) return List.of();
+        int keep = (int) Math.min(scores.size(), from + size);
+        Comparator<Map.Entry<Long, Double>> byRank = Map.Entry.<Long, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey()); // newer (higher) id wins ties
+        PriorityQueue<Map.Entry<Long, Double>> heap = new PriorityQueue<>(byRank);
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            heap.add(e);
+            if (heap.size() > keep) heap.poll();
+        }
+        List<Long> ranked = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) ranked.add(heap.poll().getKey());
+        Collections.reverse(ranked);
+        return ranked.subList((int) from, ranked.size());
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) return List.of();
+        List<String> tokens = new ArrayList<>();
+        for (String raw : text.toLowerCase(Locale.ROOT).split("[^\\p{L}\\p{N}]+")) {
+            if (!raw.isEmpty()) tokens.add(raw);
+        }
+        return tokens;
+    }
+
+    // --- STARTUP REBUILD ---
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildInBackground() {
+        setRebuilding(true);
+        Thread.ofPlatform().daemon().name("post-search-rebuild").start(this::rebuild);
+    }
+
+    private void rebuild() {
+        long started = System.currentTimeMillis();
+        long lastId = 0;
+        int indexed = 0;
+        try {
+            List<SkillPostRepository.PostText> chunk;
+            do {
+                chunk = postRepository.findTextsAfter(lastId, PageRequest.of(0, REBUILD_CHUNK));
+                for (SkillPostRepository.PostText post : chunk) {
+                    indexIfUntouched(post.getId(), post.getDescription());
+                    lastId = post.getId();
+                }
+                indexed += chunk.size();
+            } while (chunk.size() == REBUILD_CHUNK);
+            log.info("Post search index rebuilt: {} posts in {} ms", indexed, System.currentTimeMillis() - started);
+        } catch (RuntimeException e) {
+            log.error("Post search index rebuild stopped after {} posts", indexed, e);
+        } finally {
+            setRebuilding(false);
+        }
+    }
+
+    private void setRebuilding(boolean on) {
+        lock.writeLock().lock();
+        try {
+            rebuilding = on;
+            touchedDuringRebuild.clear();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+}
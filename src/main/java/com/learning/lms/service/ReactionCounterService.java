@@ -0,0 +1,177 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.ReactionSummaryDto;
+import com.learning.lms.entity.DataBackfill;
+import com.learning.lms.entity.PostReactionCount;
+import com.learning.lms.enums.ReactionType;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.event.ReactionChangedEvent;
+import com.learning.lms.repository.DataBackfillRepository;
+import com.learning.lms.repository.PostReactionCountRepository;
+import com.learning.lms.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Owns the post_reaction_counts aggregate so feeds can show totals per ReactionType
+ * without loading every reaction of every post.
+ * Committed counts of recently seen posts, and viewers' committed reactions on them, are cached
+ * (seeded by feed pages, kept current from ReactionChangedEvent) so a react click is answered from
+ * memory plus the viewer's pending toggles.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ReactionCounterService implements SmartInitializingSingleton {
+
+    private static final String SEED = "post_reaction_counts";
+
+    private final PostReactionCountRepository countRepository;
+    private final ReactionWriteBuffer writeBuffer;
+    private final DataBackfillRepository backfillRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${reactions.cache.posts:20000}")
+    private int postCacheSize;
+
+    @Value("${reactions.cache.viewers:100000}")
+    private int viewerCacheSize;
+
+    private record Viewer(long postId, long userId) {}
+
+    private record Mine(ReactionType type) {} // null type = no reaction
+
+    // Committed state only; cached maps are never modified in place
+    private LruCache<Long, Map<ReactionType, Long>> postCounts;
+    private LruCache<Viewer, Mine> viewerReactions;
+
+    @PostConstruct
+    public void init() {
+        this.postCounts = new LruCache<>(postCacheSize);
+        this.viewerReactions = new LruCache<>(viewerCacheSize);
+    }
+
+    public Map<Long, Map<ReactionType, Long>> countsFor(Collection<Long> postIds) {
+        Map<Long, Map<ReactionType, Long>> counts = new HashMap<>();
+        if (postIds.isEmpty()) return counts;
+        for (PostReactionCount row : countRepository.findByPostIdIn(postIds)) {
+            if (row.getCount() <= 0) continue;
+            counts.computeIfAbsent(row.getPostId(), id -> new EnumMap<>(ReactionType.class)).put(row.getReactionType(), row.getCount());
+        }
+        return counts;
+    }
+
+    public Map<Long, ReactionType> myReactions(Long userId, Collection<Long> postIds) {
+        Map<Long, ReactionType> mine = new HashMap<>();
+        if (userId == null || postIds.isEmpty()) return mine;
+        countRepository.findUserReactions(userId, postIds)
+                .forEach(r -> mine.put(r.getPostId(), ReactionType.valueOf(r.getReactionType())));
+        return mine;
+    }
+
+    // Counts and the viewer's reaction for a page of posts: two IN queries however long the page is
+    public Map<Long, ReactionSummaryDto> summaries(Collection<Long> postIds, Long viewerId) {
+        Map<Long, ReactionSummaryDto> summaries = new HashMap<>();
+        if (postIds.isEmpty()) return summaries;
+        long countsStamp = postCounts.stamp();
+        long mineStamp = viewerReactions.stamp();
+        Map<Long, Map<ReactionType, Long>> counts = countsFor(postIds);
+        Map<Long, ReactionType> mine = myReactions(viewerId, postIds);
+        for (Long postId : postIds) {
+            Map<ReactionType, Long> stored = counts.getOrDefault(postId, new EnumMap<>(ReactionType.class));
+            postCounts.putIfFresh(postId, new EnumMap<>(stored), countsStamp);
+            if (viewerId != null) viewerReactions.putIfFresh(new Viewer(postId, viewerId), new Mine(mine.get(postId)), mineStamp);
+            ReactionType current = overlayPending(postId, viewerId, mine.get(postId), stored);
+            summaries.put(postId, new ReactionSummaryDto(postId, current, stored));
+        }
+        return summaries;
+    }
+
+    /**
+     * The react path: buffers the toggle and answers from the cached committed state plus pending toggles.
+     * A miss costs one statement, which also tells whether the post exists.
+     */
+    public ReactionSummaryDto toggle(Long postId, Long userId, ReactionType type) {
+        // Cache before buffer: a chunk leaves the buffer's in-flight set before its commit reaches the cache
+        Viewer viewer = new Viewer(postId, userId);
+        Map<ReactionType, Long> committed = postCounts.get(postId);
+        Mine mine = viewerReactions.get(viewer);
+        if (committed == null || mine == null) {
+            long countsStamp = postCounts.stamp();
+            long mineStamp = viewerReactions.stamp();
+            List<PostReactionCountRepository.PostReactionState> rows = countRepository.findState(postId, userId);
+            if (rows.isEmpty()) throw new RuntimeException("Post not found");
+            committed = new EnumMap<>(ReactionType.class);
+            for (PostReactionCountRepository.PostReactionState row : rows) {
+                if (row.getReactionType() != null && row.getCount() > 0) committed.put(ReactionType.valueOf(row.getReactionType()), row.getCount());
+            }
+            String stored = rows.get(0).getMine();
+            mine = new Mine(stored == null ? null : ReactionType.valueOf(stored));
+            postCounts.putIfFresh(postId, committed, countsStamp);
+            viewerReactions.putIfFresh(viewer, mine, mineStamp);
+        }
+        writeBuffer.toggle(postId, userId, type);
+        Map<ReactionType, Long> counts = new EnumMap<>(ReactionType.class);
+        counts.putAll(committed);
+        ReactionType current = overlayPending(postId, userId, mine.type(), counts);
+        return new ReactionSummaryDto(postId, current, counts);
+    }
+
+    // Read-your-own-writes: apply the viewer's not-yet-flushed toggles on top of the stored values
+    private ReactionType overlayPending(Long postId, Long viewerId, ReactionType stored, Map<ReactionType, Long> counts) {
+        if (viewerId == null) return stored;
+        PendingReaction pending = writeBuffer.pendingFor(postId, viewerId);
+        if (pending == null) return stored;
+        ReactionType current = pending.resolve(stored);
+        if (current != stored) {
+            if (stored != null) counts.computeIfPresent(stored, (type, count) -> count > 1 ? count - 1 : null);
+            if (current != null) counts.merge(current, 1L, Long::sum);
+        }
+        return current;
+    }
+
+    // --- CACHE UPKEEP (after the flush commit) ---
+    @TransactionalEventListener
+    public void onReactionChanged(ReactionChangedEvent event) {
+        ReactionType before = event.getBefore();
+        ReactionType after = event.getAfter();
+        postCounts.computeIfPresent(event.getPostId(), (postId, counts) -> {
+            Map<ReactionType, Long> next = new EnumMap<>(ReactionType.class);
+            next.putAll(counts);
+            if (before != null) next.computeIfPresent(before, (type, count) -> count > 1 ? count - 1 : null);
+            if (after != null) next.merge(after, 1L, Long::sum);
+            return next;
+        });
+        viewerReactions.computeIfPresent(new Viewer(event.getPostId(), event.getUserId()), (viewer, mine) -> new Mine(after));
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostDeleted(PostDeletedEvent event) {
+        postCounts.invalidate(event.getPostId());
+        countRepository.deleteByPostId(event.getPostId());
+    }
+
+    // The counters table is new: seed it once from the existing reactions, before the web server and the
+    // buffer's scheduled flush start; the marker commits with the seed
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (backfillRepository.existsById(SEED)) return;
+        int rows = transactionTemplate.execute(status -> {
+            int seeded = countRepository.seedFromReactions();
+            backfillRepository.save(new DataBackfill(SEED, XpLedgerService.now()));
+            return seeded;
+        });
+        log.info("Seeded {} reaction counters", rows);
+    }
+}
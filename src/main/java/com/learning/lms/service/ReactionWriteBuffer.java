@@ -0,0 +1,319 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.NotificationType;
+import com.learning.lms.enums.ReactionType;
+import com.learning.lms.event.ReactionChangedEvent;
+import com.learning.lms.repository.UserRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.Ordered;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Write-behind buffer for reaction toggles.
+ * A toggle only touches an in-memory stripe; repeated toggles by the same user on the same post
+ * coalesce into one PendingReaction. Pending rows are flushed as JDBC batches on a short interval,
+ * or early once reactions.buffer.max-pending is reached, and drained on shutdown.
+ * Readers see their own pending toggles through pendingFor (ReactionCounterService overlays them).
+ * A chunk that fails on a constraint (not on the connection) is retried row by row, so one poisoned
+ * toggle holds back only itself; it is dropped after reactions.buffer.max-attempts.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ReactionWriteBuffer {
+
+    private static final int STRIPES = 16;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final NotificationService notificationService;
+    private final UserRepository userRepository;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${reactions.buffer.max-pending:2000}")
+    private int maxPending;
+
+    @Value("${reactions.buffer.batch-size:500}")
+    private int batchSize;
+
+    @Value("${reactions.buffer.max-attempts:5}")
+    private int maxAttempts;
+
+    private record Key(long postId, long userId) {}
+
+    private final Map<Key, PendingReaction>[] stripes = newStripes();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Drained but not yet committed; each chunk leaves it as it commits (before after-commit listeners run) or is re-queued
+    private final Map<Key, PendingReaction> inFlight = new ConcurrentHashMap<>();
+
+    // Failed attempts of keys whose chunk failed on a constraint; guarded by flushLock
+    private final Map<Key, Integer> failures = new HashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final AtomicBoolean flushRequested = new AtomicBoolean();
+    private final ExecutorService flusher = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("reaction-flush").daemon().factory());
+
+    @SuppressWarnings("unchecked")
+    private static Map<Key, PendingReaction>[] newStripes() {
+        Map<Key, PendingReaction>[] stripes = new Map[STRIPES];
+        for (int i = 0; i < STRIPES; i++) stripes[i] = new HashMap<>();
+        return stripes;
+    }
+
+    private Map<Key, PendingReaction> stripeFor(Key key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    // --- WRITE PATH ---
+    public void toggle(Long postId, Long userId, ReactionType type) {
+        Key key = new Key(postId, userId);
+        Map<Key, PendingReaction> stripe = stripeFor(key);
+        boolean added;
+        synchronized (stripe) {
+            PendingReaction previous = stripe.get(key);
+            stripe.put(key, previous == null ? PendingReaction.of(type) : previous.toggle(type));
+            added = previous == null;
+        }
+        if (added && pending.incrementAndGet() >= maxPending) requestFlush();
+    }
+
+    // Pending toggles of one user on one post, or null; resolve it against the persisted reaction
+    PendingReaction pendingFor(Long postId, Long userId) {
+        Key key = new Key(postId, userId);
+        Map<Key, PendingReaction> stripe = stripeFor(key);
+        PendingReaction buffered;
+        PendingReaction flushing;
+        synchronized (stripe) { // requeue moves an entry from inFlight to the stripe under this lock
+            buffered = stripe.get(key);
+            flushing = inFlight.get(key);
+        }
+        if (flushing == null) return buffered;
+        return buffered == null ? flushing : flushing.then(buffered);
+    }
+
+    // A deleted post must not get its reactions re-inserted by the next flush
+    public void discardPost(Long postId) {
+        for (Map<Key, PendingReaction> stripe : stripes) {
+            int removed;
+            synchronized (stripe) {
+                int before = stripe.size();
+                stripe.keySet().removeIf(key -> key.postId() == postId);
+                removed = before - stripe.size();
+            }
+            if (removed > 0) pending.addAndGet(-removed);
+        }
+    }
+
+    // --- FLUSH ---
+    private void requestFlush() {
+        if (!flushRequested.compareAndSet(false, true)) return;
+        flusher.execute(() -> {
+            flushRequested.set(false);
+            flush();
+        });
+    }
+
+    @Scheduled(fixedDelayString = "${reactions.buffer.flush-interval-ms:200}")
+    public void flush() {
+        if (!flushLock.tryLock()) return; // a flush is already running
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flusher.shutdown();
+        flushLock.lock();
+        try {
+            while (pending.get() > 0) {
+                if (!drainAndWrite()) {
+                    log.error("Shutting down with {} reaction toggles not persisted", pending.get());
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // Returns false when a chunk failed and was put back into the buffer
+    private boolean drainAndWrite() {
+        Map<Key, PendingReaction> batch = new HashMap<>();
+        for (Map<Key, PendingReaction> stripe : stripes) {
+            synchronized (stripe) {
+                batch.putAll(stripe);
+                stripe.clear();
+            }
+        }
+        if (batch.isEmpty()) return true;
+        pending.addAndGet(-batch.size());
+        inFlight.putAll(batch);
+
+        // Keys that already failed on a constraint are written alone, so they cannot fail a chunk again
+        List<Map.Entry<Key, PendingReaction>> entries = new ArrayList<>();
+        boolean ok = true;
+        for (Map.Entry<Key, PendingReaction> entry : batch.entrySet()) {
+            if (failures.containsKey(entry.getKey())) ok &= writeChunk(List.of(entry));
+            else entries.add(entry);
+        }
+        for (int from = 0; from < entries.size(); from += batchSize) {
+            ok &= writeChunk(entries.subList(from, Math.min(from + batchSize, entries.size())));
+        }
+        return ok;
+    }
+
+    private boolean writeChunk(List<Map.Entry<Key, PendingReaction>> chunk) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                write(chunk);
+                TransactionSynchronizationManager.registerSynchronization(new CommittedChunk(chunk));
+            });
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            if (chunk.size() > 1) {
+                log.warn("Reaction flush of {} toggles failed on a constraint, retrying them one by one", chunk.size(), e);
+                boolean ok = true;
+                for (Map.Entry<Key, PendingReaction> entry : chunk) ok &= writeChunk(List.of(entry));
+                return ok;
+            }
+            Key key = chunk.get(0).getKey();
+            int attempts = failures.merge(key, 1, Integer::sum);
+            if (attempts < maxAttempts) {
+                requeue(chunk);
+                return false;
+            }
+            log.error("Dropping reaction toggle of user {} on post {} after {} failed attempts", key.userId(), key.postId(), attempts, e);
+            failures.remove(key);
+            inFlight.remove(key);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Reaction flush of {} toggles failed, re-queued", chunk.size(), e);
+            requeue(chunk);
+            return false;
+        }
+    }
+
+    // Runs first among the after-commit callbacks: a reader never sees a chunk both in inFlight and in committed state
+    @RequiredArgsConstructor
+    private class CommittedChunk implements TransactionSynchronization {
+        private final List<Map.Entry<Key, PendingReaction>> chunk;
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+
+        @Override
+        public void afterCommit() {
+            for (Map.Entry<Key, PendingReaction> entry : chunk) {
+                inFlight.remove(entry.getKey());
+                failures.remove(entry.getKey());
+            }
+        }
+    }
+
+    // Toggles that arrived during the failed flush happened after the re-queued ones
+    private void requeue(List<Map.Entry<Key, PendingReaction>> chunk) {
+        for (Map.Entry<Key, PendingReaction> entry : chunk) {
+            Map<Key, PendingReaction> stripe = stripeFor(entry.getKey());
+            boolean added;
+            synchronized (stripe) {
+                PendingReaction later = stripe.get(entry.getKey());
+                stripe.put(entry.getKey(), later == null ? entry.getValue() : entry.getValue().then(later));
+                inFlight.remove(entry.getKey());
+                added = later == null;
+            }
+            if (added) pending.incrementAndGet();
+        }
+    }
+
+    private void write(List<Map.Entry<Key, PendingReaction>> chunk) {
+        Long[] postIds = new Long[chunk.size()];
+        Long[] userIds = new Long[chunk.size()];
+        for (int i = 0; i < chunk.size(); i++) {
+            postIds[i] = chunk.get(i).getKey().postId();
+            userIds[i] = chunk.get(i).getKey().userId();
+        }
+
+        // Current rows for the whole chunk, locked so the outcome is computed against committed state
+        Map<Key, ReactionType> persisted = new HashMap<>();
+        jdbcTemplate.query("SELECT r.post_id, r.user_id, r.reaction_type FROM post_reactions r " +
+                        "JOIN unnest(?::bigint[], ?::bigint[]) AS k(post_id, user_id) " +
+                        "ON r.post_id = k.post_id AND r.user_id = k.user_id FOR UPDATE OF r",
+                rs -> {
+                    persisted.put(new Key(rs.getLong(1), rs.getLong(2)), ReactionType.valueOf(rs.getString(3)));
+                }, postIds, userIds);
+
+        Map<Long, Long> authors = new HashMap<>();
+        jdbcTemplate.query("SELECT id, user_id FROM skill_posts WHERE id = ANY(?::bigint[])",
+                rs -> {
+                    authors.put(rs.getLong(1), rs.getLong(2));
+                }, (Object) postIds);
+
+        List<Object[]> deletes = new ArrayList<>();
+        List<Object[]> upserts = new ArrayList<>();
+        Map<Long, Map<ReactionType, Long>> deltas = new HashMap<>();
+        List<Key> firstReactions = new ArrayList<>();
+        Map<Key, ReactionType> outcomes = new HashMap<>();
+
+        for (Map.Entry<Key, PendingReaction> entry : chunk) {
+            Key key = entry.getKey();
+            Long authorId = authors.get(key.postId());
+            if (authorId == null) continue; // post deleted meanwhile
+            ReactionType before = persisted.get(key);
+            ReactionType after = entry.getValue().resolve(before);
+            if (before == after) continue;
+
+            if (after == null) {
+                deletes.add(new Object[]{key.postId(), key.userId()});
+            } else {
+                upserts.add(new Object[]{key.postId(), key.userId(), after.name()});
+                outcomes.put(key, after);
+            }
+            if (before != null) deltas.computeIfAbsent(key.postId(), id -> new EnumMap<>(ReactionType.class)).merge(before, -1L, Long::sum);
+            if (after != null) deltas.computeIfAbsent(key.postId(), id -> new EnumMap<>(ReactionType.class)).merge(after, 1L, Long::sum);
+            if (before == null && authorId != key.userId()) firstReactions.add(key);
+            eventPublisher.publishEvent(new ReactionChangedEvent(key.postId(), authorId, key.userId(), before, after));
+        }
+
+        jdbcTemplate.batchUpdate("DELETE FROM post_reactions WHERE post_id = ? AND user_id = ?", deletes);
+        jdbcTemplate.batchUpdate("INSERT INTO post_reactions (post_id, user_id, reaction_type) VALUES (?, ?, ?) " +
+                "ON CONFLICT (post_id, user_id) DO UPDATE SET reaction_type = EXCLUDED.reaction_type", upserts);
+
+        List<Object[]> counterRows = new ArrayList<>();
+        deltas.forEach((postId, byType) -> byType.forEach((type, delta) -> {
+            if (delta != 0) counterRows.add(new Object[]{postId, type.name(), delta});
+        }));
+        jdbcTemplate.batchUpdate("INSERT INTO post_reaction_counts (post_id, reaction_type, count) VALUES (?, ?, ?) " +
+                "ON CONFLICT (post_id, reaction_type) DO UPDATE SET count = post_reaction_counts.count + EXCLUDED.count", counterRows);
+
+        for (Key key : firstReactions) {
+            notificationService.createNotification(userRepository.getReferenceById(authors.get(key.postId())),
+                    userRepository.getReferenceById(key.userId()), NotificationType.LIKE,
+                    "reacted " + outcomes.get(key) + " to your post", key.postId());
+        }
+    }
+}
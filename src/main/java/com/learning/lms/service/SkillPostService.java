@@ -1,71 +1,153 @@
 package com.learning.lms.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.learning.lms.dto.CursorPage;
+import com.learning.lms.dto.FeedItemDto;
+import com.learning.lms.dto.ReactionSummaryDto;
 import com.learning.lms.dto.UserSummaryDto;
 import com.learning.lms.entity.LearningPlan;
 import com.learning.lms.entity.SkillPost;
 import com.learning.lms.entity.User;
-import com.learning.lms.enums.NotificationType;
+import com.learning.lms.enums.MediaVariant;
+import com.learning.lms.enums.PostStatus;
 import com.learning.lms.enums.ReactionType;
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.event.PostUpdatedEvent;
 import com.learning.lms.repository.LearningPlanRepository;
+import com.learning.lms.repository.PostReactionRepository;
 import com.learning.lms.repository.SkillPostRepository;
 import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.FeedCursor;
 import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class SkillPostService {
 
+    private static final int MAX_FEED_PAGE = 100;
+
     private final SkillPostRepository postRepository;
     private final UserRepository userRepository;
-    private final NotificationService notificationService;
     private final LearningPlanRepository learningPlanRepository;
+    private final PostSearchIndex searchIndex;
+    private final ReactionCounterService reactionCounterService;
+    private final FeedAssembler feedAssembler;
+    private final TrendingService trendingService;
+    private final PostReactionRepository reactionRepository;
+    private final ReactionWriteBuffer reactionWriteBuffer;
+    private final HybridFeedService hybridFeedService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaUploadPipeline mediaPipeline;
+    private final MediaBlobService mediaBlobService;
+    private final TransactionTemplate transactionTemplate;
+    private final SimpMessagingTemplate messagingTemplate;
 
-    private Cloudinary cloudinary;
-
+    // Before traffic: a post_media row without an index would fail to load its post
     @PostConstruct
     public void init() {
-        Map<String, String> config = new HashMap<>();
-        config.put("cloud_name", System.getenv("CLOUDINARY_CLOUD_NAME"));
-        config.put("api_key", System.getenv("CLOUDINARY_API_KEY"));
-        config.put("api_secret", System.getenv("CLOUDINARY_API_SECRET"));
-        this.cloudinary = new Cloudinary(config);
+        int numbered = postRepository.numberUnorderedMedia();
+        if (numbered > 0) log.info("Numbered {} post_media rows written before media_order existed", numbered);
+    }
+
+    public List<FeedItemDto> getAllPosts(int page, int size, Long viewerId) {
+        return loadPage(postRepository.findAllPostIds(PageRequest.of(Math.max(0, page), pageSize(size))), viewerId);
+    }
+
+    public List<FeedItemDto> getFollowingPosts(Long userId, int page, int size) {
+        return loadPage(hybridFeedService.getPostIds(userId, Math.max(0, page), pageSize(size)), userId);
     }
 
-    public List<SkillPost> getAllPosts(int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return postRepository.findAllPosts(pageable).getContent();
+    public List<FeedItemDto> getUserPosts(Long userId, int page, int size, Long viewerId) {
+        return loadPage(postRepository.findPostIdsByUserId(userId, PageRequest.of(Math.max(0, page), pageSize(size))), viewerId);
     }
 
-    public List<SkillPost> getFollowingPosts(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return postRepository.findPostsByFollowedUsers(userId, pageable).getContent();
+    private static int pageSize(int size) {
+        return Math.max(1, Math.min(size, MAX_FEED_PAGE));
     }
 
-    public List<SkillPost> getUserPosts(Long userId, int page, int size) {
-        Pageable pageable = PageRequest.of(page, size, Sort.by("createdAt").descending());
-        return postRepository.findByUserId(userId, pageable).getContent();
+    // --- KEYSET (CURSOR) FEEDS: every page costs the same, however deep the scroll ---
+    // A malformed cursor throws IllegalArgumentException (400 from SkillPostController)
+    public CursorPage<FeedItemDto> getAllPosts(String cursor, int requested, Long viewerId) {
+        int size = pageSize(requested);
+        FeedCursor after = FeedCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Long> ids = after == null
+                ? postRepository.findAllPostIds(limit)
+                : postRepository.findAllPostIdsBefore(after.getCreatedAt(), after.getId(), limit);
+        return toCursorPage(ids, size, viewerId);
     }
 
-    public List<SkillPost> searchPosts(String query) {
+    // Served from the materialized timeline merged with pulled high-follower authors
+    public CursorPage<FeedItemDto> getFollowingPosts(Long userId, String cursor, int requested) {
+        int size = pageSize(requested);
+        return toCursorPage(hybridFeedService.getPostIds(userId, FeedCursor.decode(cursor), size + 1), size, userId);
+    }
+
+    public CursorPage<FeedItemDto> getUserPosts(Long userId, String cursor, int requested, Long viewerId) {
+        int size = pageSize(requested);
+        FeedCursor after = FeedCursor.decode(cursor);
+        Pageable limit = PageRequest.of(0, size + 1);
+        List<Long> ids = after == null
+                ? postRepository.findPostIdsByUserId(userId, limit)
+                : postRepository.findPostIdsByUserIdBefore(userId, after.getCreatedAt(), after.getId(), limit);
+        return toCursorPage(ids, size, viewerId);
+    }
+
+    // Ids were fetched with size + 1 rows so we know whether another page exists
+    private CursorPage<FeedItemDto> toCursorPage(List<Long> ids, int size, Long viewerId) {
+        boolean hasMore = ids.size() > size;
+        List<FeedItemDto> posts = loadPage(hasMore ? ids.subList(0, size) : ids, viewerId);
+        String nextCursor = null;
+        if (hasMore && !posts.isEmpty()) {
+            FeedItemDto last = posts.get(posts.size() - 1);
+            nextCursor = new FeedCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new CursorPage<>(posts, nextCursor);
+    }
+
+    // Hydrates a page of ids in the order the seek query returned them
+    private List<FeedItemDto> loadPage(List<Long> ids, Long viewerId) {
+        return feedAssembler.assemble(ids, viewerId);
+    }
+
+    public FeedItemDto getPost(Long postId, Long viewerId) {
+        return findVisiblePost(postId, viewerId).orElseThrow(() -> new RuntimeException("Post not found"));
+    }
+
+    // A PENDING or FAILED post exists only for its author until it is published
+    public Optional<FeedItemDto> findVisiblePost(Long postId, Long viewerId) {
+        List<FeedItemDto> items = feedAssembler.assemble(List.of(postId), viewerId);
+        if (items.isEmpty()) return Optional.empty();
+        FeedItemDto item = items.get(0);
+        boolean author = item.getUser() != null && Objects.equals(item.getUser().getId(), viewerId);
+        if (item.getStatus() != PostStatus.PUBLISHED && !author) return Optional.empty();
+        return Optional.of(item);
+    }
+
+    // Decayed engagement ranking, served from TrendingService's in-memory top-K
+    // The ranked set is at most trending.top-k long; anything deeper is simply empty
+    public List<FeedItemDto> getTrendingPosts(int page, int size, Long viewerId) {
+        return loadPage(trendingService.page(Math.max(0, page), pageSize(size)), viewerId);
+    }
+
+    public List<FeedItemDto> searchPosts(String query, int page, int size, Long viewerId) {
         if(query == null || query.isBlank()) return List.of();
-        String q = query.toLowerCase();
-        return postRepository.findAll().stream()
-                .filter(p -> p.getDescription() != null && p.getDescription().toLowerCase().contains(q))
-                .limit(20)
-                .collect(Collectors.toList());
+        return loadPage(searchIndex.search(query, page, size), viewerId);
     }
 
     @Transactional
@@ -75,97 +157,138 @@ public class SkillPostService {
         String formattedContent = type != null ? "[" + type + "] " + content : content;
         post.setDescription(formattedContent);
         post.setUser(user);
-        return postRepository.save(post);
+        SkillPost saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostCreatedEvent(saved.getId(), userId, saved.getCreatedAt(), saved.getDescription(), null));
+        return saved;
     }
 
-    // --- UPDATED: CLOUDINARY UPLOAD FOR POSTS ---
-    @Transactional
+    // --- MEDIA POSTS: uploads run on MediaUploadPipeline, no connection is held while they do ---
+    // A post with media is saved PENDING and only published (feeds, fan-out, trending) once every
+    // upload has finished; the author is told over /user/{id}/queue/post-status either way.
+    // Uploads start only after the PENDING row committed, so a rejected post never stores or references media.
     public SkillPost createPost(Long userId, String description, List<MultipartFile> mediaFiles, Long originalPostId, Long learningPlanId) {
-        User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
-        SkillPost post = new SkillPost();
-        post.setDescription(description != null ? description : "");
-        post.setUser(user);
+        List<StagedMedia> staged = mediaPipeline.stage(mediaFiles);
 
-        if (originalPostId != null) {
-            SkillPost original = postRepository.findById(originalPostId).orElseThrow();
-            post.setOriginalPost(original.getOriginalPost() != null ? original.getOriginalPost() : original);
-        }
+        SkillPost saved;
+        try {
+            saved = transactionTemplate.execute(status -> {
+                User user = userRepository.findById(userId).orElseThrow(() -> new RuntimeException("User not found"));
+                SkillPost post = new SkillPost();
+                post.setDescription(description != null ? description : "");
+                post.setUser(user);
+                post.setStatus(staged.isEmpty() ? PostStatus.PUBLISHED : PostStatus.PENDING);
 
-        if (learningPlanId != null) {
-            LearningPlan plan = learningPlanRepository.findById(learningPlanId).orElseThrow();
-            post.setLearningPlan(plan);
-        }
+                if (originalPostId != null) {
+                    SkillPost original = postRepository.findById(originalPostId).orElseThrow(() -> new RuntimeException("Original post not found"));
+                    post.setOriginalPost(original.getOriginalPost() != null ? original.getOriginalPost() : original);
+                }
 
-        if (mediaFiles != null && !mediaFiles.isEmpty()) {
-            try {
-                for (MultipartFile file : mediaFiles) {
-                    if (!file.isEmpty()) {
-                        // CRITICAL FIX: Add "resource_type", "auto" to handle videos
-                        Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
-                                "folder", "posts",
-                                "resource_type", "auto"
-                        ));
-                        String secureUrl = (String) uploadResult.get("secure_url");
-                        post.getMediaUrls().add(secureUrl);
-                    }
+                if (learningPlanId != null) {
+                    LearningPlan plan = learningPlanRepository.findById(learningPlanId).orElseThrow(() -> new RuntimeException("Learning plan not found"));
+                    post.setLearningPlan(plan);
                 }
-            } catch (IOException e) {
-                e.printStackTrace(); // Log the error for debugging
-                throw new RuntimeException("Failed to upload media: " + e.getMessage());
-            }
+
+                SkillPost created = postRepository.save(post);
+                if (staged.isEmpty()) publishCreated(created);
+                return created;
+            });
+        } catch (RuntimeException e) {
+            mediaPipeline.discard(staged);
+            throw e;
         }
-        return postRepository.save(post);
-    }
+        if (staged.isEmpty()) return saved;
 
-    @Transactional
-    public SkillPost reactToPost(Long postId, Long userId, ReactionType type) {
-        SkillPost post = postRepository.findById(postId).orElseThrow();
-        User user = userRepository.findById(userId).orElseThrow();
+        CompletableFuture<List<String>> uploads;
+        try {
+            uploads = mediaPipeline.uploadAll(staged, "posts", EnumSet.of(MediaVariant.FEED, MediaVariant.THUMB));
+        } catch (RuntimeException e) { // pool full: the PENDING row was never listed anywhere
+            transactionTemplate.executeWithoutResult(status -> postRepository.deleteById(saved.getId()));
+            throw e;
+        }
+        uploads.whenComplete((urls, error) -> {
+            if (error == null) publishMedia(saved.getId(), urls);
+            else markFailed(saved.getId(), error); // uploadAll already released what the other files referenced
+            notifyStatus(saved.getId(), userId);
+        });
+        return saved;
+    }
 
-        if (post.getReactions().containsKey(userId)) {
-            ReactionType existingType = post.getReactions().get(userId);
-            if (existingType == type) {
-                post.getReactions().remove(userId);
-            } else {
-                post.getReactions().put(userId, type);
-            }
-        } else {
-            post.getReactions().put(userId, type);
-            if (!post.getUser().getId().equals(userId)) {
-                notificationService.createNotification(post.getUser(), user, NotificationType.LIKE, "reacted " + type + " to your post", post.getId());
-            }
+    // Deleted while uploading, or failing to publish: the references the uploads took are given back
+    private void publishMedia(Long postId, List<String> urls) {
+        boolean published;
+        try {
+            published = Boolean.TRUE.equals(transactionTemplate.execute(status -> postRepository.findById(postId).map(post -> {
+                post.getMediaUrls().addAll(urls);
+                post.setStatus(PostStatus.PUBLISHED);
+                publishCreated(postRepository.save(post));
+                return true;
+            }).orElse(false)));
+        } catch (RuntimeException e) {
+            mediaBlobService.release(urls);
+            markFailed(postId, e);
+            return;
         }
-        return postRepository.saveAndFlush(post);
+        if (!published) mediaBlobService.release(urls);
     }
 
-    @Transactional(readOnly = true)
-    public List<UserSummaryDto> getPostReactions(Long postId) {
-        SkillPost post = postRepository.findById(postId).orElseThrow(() -> new RuntimeException("Post not found"));
-        Map<Long, ReactionType> reactions = post.getReactions();
+    private void markFailed(Long postId, Throwable error) {
+        log.warn("Media upload failed for post {}", postId, error);
+        transactionTemplate.executeWithoutResult(status -> postRepository.findById(postId).ifPresent(post -> {
+            post.setStatus(PostStatus.FAILED);
+            postRepository.save(post);
+        }));
+    }
 
-        if (reactions.isEmpty()) return new ArrayList<>();
+    private void publishCreated(SkillPost post) {
+        Long originalId = post.getOriginalPost() != null ? post.getOriginalPost().getId() : null;
+        eventPublisher.publishEvent(new PostCreatedEvent(post.getId(), post.getUser().getId(), post.getCreatedAt(), post.getDescription(), originalId));
+    }
 
-        List<User> users = userRepository.findAllById(reactions.keySet());
+    private void notifyStatus(Long postId, Long authorId) {
+        try {
+            messagingTemplate.convertAndSendToUser(String.valueOf(authorId), "/queue/post-status", getPost(postId, authorId));
+        } catch (RuntimeException e) { // deleted while uploading: nothing to report
+            log.debug("No status pushed for post {}: {}", postId, e.getMessage());
+        }
+    }
 
-        return users.stream().map(user -> UserSummaryDto.builder()
-                .id(user.getId())
-                .username(user.getUsername())
-                .firstname(user.getFirstname())
-                .lastname(user.getLastname())
-                .avatarUrl(user.getAvatarUrl())
-                .level(user.getLevel())
-                .reactionType(reactions.get(user.getId()).name())
-                .build()
-        ).collect(Collectors.toList());
+    // Buffered: the toggle is persisted by ReactionWriteBuffer's next flush, the response already reflects it
+    public ReactionSummaryDto reactToPost(Long postId, Long userId, ReactionType type) {
+        return reactionCounterService.toggle(postId, userId, type);
+    }
+
+    @Transactional(readOnly = true)
+    public List<UserSummaryDto> getPostReactions(Long postId, int page, int size) {
+        return reactionRepository.findReactors(postId, PageRequest.of(Math.max(0, page), pageSize(size))).stream()
+                .map(r -> UserSummaryDto.builder()
+                        .id(r.getId())
+                        .username(r.getUsername())
+                        .firstname(r.getFirstname())
+                        .lastname(r.getLastname())
+                        .avatarUrl(r.getAvatarUrl())
+                        .level(r.getLevel())
+                        .reactionType(r.getReactionType().name())
+                        .build())
+                .collect(Collectors.toList());
     }
 
     @Transactional
-    public void deletePost(Long postId) { postRepository.deleteById(postId); }
+    public void deletePost(Long postId) {
+        SkillPost post = postRepository.findById(postId).orElse(null);
+        if (post == null) return;
+        mediaBlobService.release(post.getMediaUrls());
+        reactionWriteBuffer.discardPost(postId);
+        reactionRepository.deleteByPostId(postId);
+        postRepository.deleteById(postId);
+        eventPublisher.publishEvent(new PostDeletedEvent(postId, post.getUser().getId()));
+    }
 
     @Transactional
     public SkillPost updatePost(Long postId, String desc) {
         SkillPost post = postRepository.findById(postId).orElseThrow();
         post.setDescription(desc);
-        return postRepository.save(post);
+        SkillPost saved = postRepository.save(post);
+        eventPublisher.publishEvent(new PostUpdatedEvent(postId, desc));
+        return saved;
     }
 }
\ No newline at end of file
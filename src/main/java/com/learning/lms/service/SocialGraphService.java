@@ -0,0 +1,146 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.SortedLongs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The follow graph (user_following) held in memory as one sorted long[] per user and direction,
+ * so membership, counts and intersections never touch the User.following/followers collections.
+ * Arrays are immutable and swapped on change: reads take no lock. Loaded once (first use or startup)
+ * and kept current from FollowChangedEvent after each commit.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SocialGraphService {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final UserRepository userRepository;
+
+    private final Map<Long, long[]> following = new ConcurrentHashMap<>();
+    private final Map<Long, long[]> followers = new ConcurrentHashMap<>();
+    private volatile boolean loaded;
+
+    // --- READS ---
+    public boolean isFollowing(long followerId, long targetId) {
+        return SortedLongs.contains(followingIds(followerId), targetId);
+    }
+
+    public long[] followingIds(long userId) {
+        return adjacency(following, userId);
+    }
+
+    public long[] followerIds(long userId) {
+        return adjacency(followers, userId);
+    }
+
+    public int followingCount(long userId) {
+        return followingIds(userId).length;
+    }
+
+    public int followerCount(long userId) {
+        return followerIds(userId).length;
+    }
+
+    /** Everyone either user follows in common. */
+    public int commonFollowingCount(long a, long b) {
+        return SortedLongs.intersectionSize(followingIds(a), followingIds(b));
+    }
+
+    /** Followed by or following the user (e.g. chat partners), sorted. */
+    public long[] connections(long userId) {
+        return SortedLongs.union(followingIds(userId), followerIds(userId));
+    }
+
+    private long[] adjacency(Map<Long, long[]> index, long userId) {
+        if (!loaded) load();
+        return index.getOrDefault(userId, SortedLongs.EMPTY);
+    }
+
+    // --- WRITES (after commit; first, so later listeners already see the change) ---
+    @TransactionalEventListener
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (!loaded) load();
+        long follower = event.getFollowerId();
+        long target = event.getTargetUserId();
+        synchronized (this) {
+            if (event.isFollowing()) {
+                following.put(follower, SortedLongs.insert(following.getOrDefault(follower, SortedLongs.EMPTY), target));
+                followers.put(target, SortedLongs.insert(followers.getOrDefault(target, SortedLongs.EMPTY), follower));
+            } else {
+                following.computeIfPresent(follower, (k, ids) -> emptyToNull(SortedLongs.remove(ids, target)));
+                followers.computeIfPresent(target, (k, ids) -> emptyToNull(SortedLongs.remove(ids, follower)));
+            }
+        }
+    }
+
+    /** Drops every edge of a deleted user. */
+    public synchronized void removeUser(long userId) {
+        for (long target : following.getOrDefault(userId, SortedLongs.EMPTY)) {
+            followers.computeIfPresent(target, (k, ids) -> emptyToNull(SortedLongs.remove(ids, userId)));
+        }
+        for (long follower : followers.getOrDefault(userId, SortedLongs.EMPTY)) {
+            following.computeIfPresent(follower, (k, ids) -> emptyToNull(SortedLongs.remove(ids, userId)));
+        }
+        following.remove(userId);
+        followers.remove(userId);
+    }
+
+    private static long[] emptyToNull(long[] ids) {
+        return ids.length == 0 ? null : ids;
+    }
+
+    // --- LOAD ---
+    // Also brings the stored follower/following counters in line with the edges (no-op when they agree)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        if (!loaded) load();
+        int fixed = userRepository.reconcileFollowCounts();
+        if (fixed > 0) log.info("Reconciled follow counters of {} users", fixed);
+    }
+
+    // Writers wait on the same lock, so a change committed during the scan is applied after it
+    private synchronized void load() {
+        if (loaded) return;
+        long start = System.nanoTime();
+        Map<Long, Growable> out = new HashMap<>();
+        Map<Long, Growable> in = new HashMap<>();
+        jdbcTemplate.query("SELECT follower_id, following_id FROM user_following", rs -> {
+            long follower = rs.getLong(1);
+            long target = rs.getLong(2);
+            out.computeIfAbsent(follower, k -> new Growable()).add(target);
+            in.computeIfAbsent(target, k -> new Growable()).add(follower);
+        });
+        out.forEach((userId, ids) -> following.put(userId, SortedLongs.normalize(ids.values, ids.size)));
+        in.forEach((userId, ids) -> followers.put(userId, SortedLongs.normalize(ids.values, ids.size)));
+        loaded = true;
+        log.info("Social graph loaded: {} users following, {} followed, in {} ms",
+                following.size(), followers.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private static final class Growable {
+        long[] values = new long[4];
+        int size;
+
+        void add(long value) {
+            if (size == values.length) values = Arrays.copyOf(values, size * 2);
+            values[size++] = value;
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.learning.lms.service;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.file.Path;
+
+// An uploaded part copied to a temp file that outlives the request (see MediaUploadPipeline.stage)
+@Getter
+@AllArgsConstructor
+public class StagedMedia {
+    private final Path file;
+    private final String originalFilename;
+    private final String contentType;
+    private final long size;
+    private final String digest; // SHA-256 hex, computed while the part was copied
+    private final UploadAdmission.Ticket ticket; // null outside a multipart request
+}
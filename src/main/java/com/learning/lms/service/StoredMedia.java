@@ -0,0 +1,20 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.MediaVariant;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.Map;
+
+// Where an upload ended up: the original plus whatever derivatives were made of it
+@Getter
+@AllArgsConstructor
+public class StoredMedia {
+    private final String url;
+    private final Map<MediaVariant, String> variants;
+
+    /** The variant when one was made, otherwise the original. */
+    public String urlFor(MediaVariant variant) {
+        return variants.getOrDefault(variant, url);
+    }
+}
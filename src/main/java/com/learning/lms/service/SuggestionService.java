@@ -0,0 +1,188 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.util.SortedLongs;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * "Who to follow": candidates are friends of friends, people who follow the user, and people with the
+ * same plan tags, ranked by mutual follows, shared tags and recent activity (see score()).
+ * Rankings are precomputed for every user by a background batch and kept as a short sorted-by-score
+ * id list; a follow change recomputes the follower at once and queues the people it affects.
+ * Reading suggestions is a map lookup plus a filter against the live graph.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class SuggestionService {
+
+    private static final double W_MUTUAL = 3.0;      // per followed user who also follows the candidate
+    private static final double W_FOLLOWS_YOU = 4.0;
+    private static final double W_TAG = 1.5;         // per shared plan tag
+    private static final double W_ACTIVITY = 1.0;    // times ln(1 + recent posts and plans)
+
+    private final SocialGraphService socialGraph;
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${suggestions.per-user:20}")
+    private int perUser;
+
+    @Value("${suggestions.activity-days:14}")
+    private int activityDays;
+
+    @Value("${suggestions.tag-fanout-max:500}")
+    private int tagFanoutMax;
+
+    /**
+     * Everything but the graph that scoring reads, rebuilt by each batch and swapped whole.
+     * mostActive fills lists for users without any graph or tag signal (new accounts).
+     */
+    private record Signals(Map<Long, String[]> tagsByUser, Map<String, long[]> usersByTag,
+                           Map<Long, Integer> activity, long[] mostActive) {}
+
+    private volatile Signals signals;
+    private final Map<Long, long[]> ranked = new ConcurrentHashMap<>();
+    private final Set<Long> dirty = ConcurrentHashMap.newKeySet();
+
+    // --- READ ---
+    /** Best-first ids; anyone followed since the list was built is skipped. */
+    public List<Long> suggestionsFor(long userId, int limit) {
+        long[] ids = ranked.get(userId);
+        if (ids == null) ids = refresh(userId);
+        List<Long> out = new ArrayList<>(limit);
+        for (long id : ids) {
+            if (out.size() == limit) break;
+            if (!socialGraph.isFollowing(userId, id)) out.add(id);
+        }
+        return out;
+    }
+
+    // --- INCREMENTAL (after commit, once the graph has the change) ---
+    // The follower's own candidates change now; their followers see a new friend of a friend,
+    // and the target gains a follower to follow back: those are refreshed by the next drain
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        refresh(event.getFollowerId());
+        dirty.add(event.getTargetUserId());
+        for (long id : socialGraph.followerIds(event.getFollowerId())) dirty.add(id);
+    }
+
+    @Scheduled(fixedDelayString = "${suggestions.dirty-drain-ms:30000}")
+    public void drainDirty() {
+        if (dirty.isEmpty()) return;
+        List<Long> batch = new ArrayList<>(dirty);
+        dirty.removeAll(batch);
+        for (Long userId : batch) refresh(userId);
+    }
+
+    public void removeUser(long userId) {
+        ranked.remove(userId);
+        dirty.remove(userId);
+    }
+
+    // --- BATCH ---
+    // Delayed past startup: until the first batch, a read computes the user's own list on demand
+    @Scheduled(initialDelayString = "${suggestions.initial-delay-ms:300000}",
+            fixedDelayString = "${suggestions.refresh-interval-ms:1800000}")
+    public void rebuild() {
+        long start = System.nanoTime();
+        signals = loadSignals();
+        List<Long> userIds = jdbcTemplate.queryForList("SELECT id FROM _user", Long.class);
+        for (Long userId : userIds) refresh(userId);
+        ranked.keySet().retainAll(new HashSet<>(userIds));
+        log.info("Suggestions rebuilt for {} users in {} ms", userIds.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private long[] refresh(long userId) {
+        long[] ids = score(userId, currentSignals());
+        ranked.put(userId, ids);
+        return ids;
+    }
+
+    private Signals currentSignals() {
+        Signals s = signals;
+        if (s != null) return s;
+        synchronized (this) {
+            if (signals == null) signals = loadSignals();
+            return signals;
+        }
+    }
+
+    // --- SCORING ---
+    long[] score(long userId, Signals s) {
+        long[] following = socialGraph.followingIds(userId);
+        Map<Long, Double> scores = new HashMap<>();
+
+        // Friends of friends: one point per followed user who follows the candidate
+        for (long friend : following) {
+            for (long candidate : socialGraph.followingIds(friend)) scores.merge(candidate, W_MUTUAL, Double::sum);
+        }
+        for (long follower : socialGraph.followerIds(userId)) scores.merge(follower, W_FOLLOWS_YOU, Double::sum);
+
+        // Shared plan tags; a tag everyone uses says little, so very common ones are skipped
+        for (String tag : s.tagsByUser().getOrDefault(userId, new String[0])) {
+            long[] users = s.usersByTag().getOrDefault(tag, SortedLongs.EMPTY);
+            if (users.length > tagFanoutMax) continue;
+            for (long candidate : users) scores.merge(candidate, W_TAG, Double::sum);
+        }
+
+        scores.remove(userId);
+        for (long followed : following) scores.remove(followed);
+        scores.replaceAll((candidate, score) -> score + W_ACTIVITY * Math.log1p(s.activity().getOrDefault(candidate, 0)));
+
+        List<Map.Entry<Long, Double>> best = new ArrayList<>(scores.entrySet());
+        best.sort(Map.Entry.<Long, Double>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+        long[] ids = new long[Math.min(perUser, best.size() + s.mostActive().length)];
+        int n = 0;
+        for (Map.Entry<Long, Double> e : best) {
+            if (n == ids.length) break;
+            ids[n++] = e.getKey();
+        }
+        for (long active : s.mostActive()) {
+            if (n == ids.length) break;
+            if (active != userId && !scores.containsKey(active) && !SortedLongs.contains(following, active)) ids[n++] = active;
+        }
+        return n == ids.length ? ids : Arrays.copyOf(ids, n);
+    }
+
+    // Two scans: tags of each user's plans, and posts + plans created within the activity window
+    private Signals loadSignals() {
+        Map<Long, Set<String>> tags = new HashMap<>();
+        Map<String, Set<Long>> byTag = new HashMap<>();
+        jdbcTemplate.query("SELECT DISTINCT lp.user_id, LOWER(pt.tag) FROM plan_tags pt " +
+                "JOIN learning_plans lp ON lp.id = pt.plan_id WHERE lp.user_id IS NOT NULL", rs -> {
+            long userId = rs.getLong(1);
+            String tag = rs.getString(2).intern();
+            tags.computeIfAbsent(userId, k -> new HashSet<>()).add(tag);
+            byTag.computeIfAbsent(tag, k -> new HashSet<>()).add(userId);
+        });
+
+        Map<Long, Integer> activity = new HashMap<>();
+        jdbcTemplate.query("SELECT user_id, COUNT(*) FROM (" +
+                "SELECT user_id FROM skill_posts WHERE created_at > now() - make_interval(days => ?) " +
+                "UNION ALL SELECT user_id FROM learning_plans WHERE created_at > now() - make_interval(days => ?)) a " +
+                "WHERE user_id IS NOT NULL GROUP BY user_id", rs -> {
+            activity.put(rs.getLong(1), rs.getInt(2));
+        }, activityDays, activityDays);
+
+        Map<Long, String[]> tagsByUser = new HashMap<>();
+        tags.forEach((userId, set) -> tagsByUser.put(userId, set.toArray(String[]::new)));
+        Map<String, long[]> usersByTag = new HashMap<>();
+        byTag.forEach((tag, set) -> usersByTag.put(tag, set.stream().mapToLong(Long::longValue).sorted().toArray()));
+        long[] mostActive = activity.entrySet().stream()
+                .sorted(Map.Entry.<Long, Integer>comparingByValue().reversed())
+                .limit(perUser * 2L)
+                .mapToLong(Map.Entry::getKey)
+                .toArray();
+        return new Signals(tagsByUser, usersByTag, activity, mostActive);
+    }
+}
@@ -0,0 +1,93 @@
+package com.learning.lms.service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Bounded, newest-first list of (createdAt, postId) kept as two primitive arrays.
+ * When full, the oldest entry falls off. "truncated" records that older entries
+ * may exist in the database, so callers know when to fall back to a pull query.
+ */
+class TimelineRing {
+
+    private final long[] times;
+    private final long[] ids;
+    private int size;
+    private boolean truncated;
+
+    TimelineRing(int capacity) {
+        this.times = new long[capacity];
+        this.ids = new long[capacity];
+    }
+
+    // Postgres keeps microseconds (rounded), so we compare at the same precision
+    static long key(LocalDateTime createdAt) {
+        LocalDateTime micros = createdAt.plusNanos(500).truncatedTo(ChronoUnit.MICROS);
+        return micros.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + micros.getNano() / 1_000;
+    }
+
+    synchronized void add(LocalDateTime createdAt, long postId) {
+        long time = key(createdAt);
+        int pos = position(time, postId);
+        if (pos < size && times[pos] == time && ids[pos] == postId) return;
+        if (size == times.length) {
+            truncated = true;
+            if (pos == size) return;
+            size--;
+        }
+        System.arraycopy(times, pos, times, pos + 1, size - pos);
+        System.arraycopy(ids, pos, ids, pos + 1, size - pos);
+        times[pos] = time;
+        ids[pos] = postId;
+        size++;
+    }
+
+    // A deleted post; linear, rings are small
+    synchronized void remove(long postId) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] != postId) continue;
+            System.arraycopy(times, i + 1, times, i, size - i - 1);
+            System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+            size--;
+            return;
+        }
+    }
+
+    synchronized void markTruncated() {
+        truncated = true;
+    }
+
+    /** Entries strictly older than the cursor, or null if the ring cannot answer completely. */
+    synchronized List<FeedEntry> before(LocalDateTime createdAt, Long postId, int limit) {
+        int from = createdAt == null ? 0 : position(key(createdAt), postId);
+        if (from < size && createdAt != null && times[from] == key(createdAt) && ids[from] == postId) from++;
+        return collect(from, limit);
+    }
+
+    /** Offset slice for the legacy page/size API, or null if the ring cannot answer completely. */
+    synchronized List<FeedEntry> slice(int offset, int limit) {
+        return collect(Math.min(offset, size), limit);
+    }
+
+    private List<FeedEntry> collect(int from, int limit) {
+        int to = Math.min(size, from + limit);
+        if (to - from < limit && truncated) return null;
+        List<FeedEntry> result = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) result.add(new FeedEntry(times[i], ids[i]));
+        return result;
+    }
+
+    // First index whose entry sorts after (older than) or equal to the given key
+    private int position(long time, long postId) {
+        int lo = 0, hi = size;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            boolean newer = times[mid] > time || (times[mid] == time && ids[mid] > postId);
+            if (newer) lo = mid + 1; else hi = mid;
+        }
+        return lo;
+    }
+}
@@ -0,0 +1,260 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.repository.TimelineEntryRepository;
+import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.FeedCursor;
+import com.learning.lms.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Materialized home timelines (fan-out-on-write).
+ * The timeline_entries table is the persisted tier; recently read timelines are kept
+ * in memory as bounded rings so a feed read is an id-range lookup plus one hydrate query.
+ * Authors above feed.fanout.follower-threshold are not fanned out; HybridFeedService pulls them at read time.
+ * Rings are changed only after the table change commits; a ring being loaded meanwhile gets the change
+ * applied before it is cached, so neither a push nor a delete can fall between the load and the cache.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TimelineService {
+
+    private final TimelineEntryRepository timelineRepository;
+    private final UserRepository userRepository;
+    private final SocialGraphService socialGraph;
+    private final FeedMetrics metrics;
+
+    @Value("${feed.timeline.capacity:300}")
+    private int capacity;
+
+    @Value("${feed.timeline.hot-users:2000}")
+    private int hotUsers;
+
+    @Value("${feed.fanout.follower-threshold:1000}")
+    private long followerThreshold;
+
+    private LruCache<Long, TimelineRing> hotTimelines;
+
+    // Authors whose posts are pulled at read time instead of pushed (copy-on-write)
+    private volatile Set<Long> pullAuthors = Set.of();
+
+    // Ring changes that arrived while the user's ring was loading; guarded by itself, like every ring change
+    private final Map<Long, Loading> loading = new HashMap<>();
+
+    private static class Loading {
+        int loaders;
+        final List<PostCreatedEvent> pushes = new ArrayList<>();
+        final List<Long> removals = new ArrayList<>();
+    }
+
+    @PostConstruct
+    public void init() {
+        this.hotTimelines = new LruCache<>(hotUsers);
+    }
+
+    // --- WRITE PATH (runs after the post / follow has committed) ---
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostCreated(PostCreatedEvent event) {
+        long start = System.nanoTime();
+        if (pullAuthors.contains(event.getAuthorId())) {
+            timelineRepository.pushToAuthor(event.getPostId(), event.getAuthorId(), event.getCreatedAt());
+            afterCommit(() -> pushToHotRing(event.getAuthorId(), event));
+            metrics.recordSkippedFanout();
+            return;
+        }
+        int rows = timelineRepository.fanOut(event.getPostId(), event.getAuthorId(), event.getCreatedAt());
+        afterCommit(() -> {
+            pushToHotRing(event.getAuthorId(), event);
+            for (long followerId : socialGraph.followerIds(event.getAuthorId())) {
+                pushToHotRing(followerId, event);
+            }
+        });
+        metrics.recordPush(rows, System.nanoTime() - start);
+    }
+
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onFollowChanged(FollowChangedEvent event) {
+        if (updatePullAuthor(event.getTargetUserId())) backfillFollowers(event.getTargetUserId());
+        if (pullAuthors.contains(event.getTargetUserId())) {
+            // Pulled at read time either way; nothing to copy
+            if (!event.isFollowing()) timelineRepository.deleteByUserIdAndAuthorId(event.getFollowerId(), event.getTargetUserId());
+        } else if (event.isFollowing()) {
+            timelineRepository.backfillAuthor(event.getFollowerId(), event.getTargetUserId(), capacity);
+        } else {
+            timelineRepository.deleteByUserIdAndAuthorId(event.getFollowerId(), event.getTargetUserId());
+        }
+        // Older posts may have been inserted mid-ring, simplest is to reload on next read
+        afterCommit(() -> hotTimelines.invalidate(event.getFollowerId()));
+    }
+
+    // Rings that may hold the post: the author's and their followers' (an unfollow already reloads the ring)
+    @TransactionalEventListener
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void onPostDeleted(PostDeletedEvent event) {
+        timelineRepository.deleteByPostId(event.getPostId());
+        afterCommit(() -> {
+            removeFromHotRing(event.getAuthorId(), event.getPostId());
+            for (long followerId : socialGraph.followerIds(event.getAuthorId())) {
+                removeFromHotRing(followerId, event.getPostId());
+            }
+        });
+    }
+
+    private void pushToHotRing(Long userId, PostCreatedEvent event) {
+        synchronized (loading) {
+            TimelineRing ring = hotTimelines.getIfPresent(userId);
+            if (ring != null) ring.add(event.getCreatedAt(), event.getPostId());
+            else if (loading.containsKey(userId)) loading.get(userId).pushes.add(event);
+        }
+    }
+
+    private void removeFromHotRing(Long userId, long postId) {
+        synchronized (loading) {
+            TimelineRing ring = hotTimelines.getIfPresent(userId);
+            if (ring != null) ring.remove(postId);
+            else if (loading.containsKey(userId)) loading.get(userId).removals.add(postId);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            action.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+
+    // --- HIGH-FOLLOWER AUTHORS ---
+    @Scheduled(fixedDelayString = "${feed.fanout.refresh-interval-ms:600000}")
+    public void refreshPullAuthors() {
+        Set<Long> next = Set.copyOf(userRepository.findUserIdsWithMoreFollowersThan(followerThreshold));
+        Set<Long> left = new HashSet<>();
+        synchronized (this) {
+            for (Long authorId : pullAuthors) if (!next.contains(authorId)) left.add(authorId);
+            pullAuthors = next;
+        }
+        left.forEach(this::backfillFollowers);
+    }
+
+    // True when the author just left pull mode: followers stop pulling their posts at read time
+    private boolean updatePullAuthor(Long authorId) {
+        boolean above = socialGraph.followerCount(authorId) > followerThreshold;
+        if (above == pullAuthors.contains(authorId)) return false;
+        synchronized (this) {
+            if (above == pullAuthors.contains(authorId)) return false;
+            Set<Long> next = new HashSet<>(pullAuthors);
+            if (above) next.add(authorId); else next.remove(authorId);
+            pullAuthors = Set.copyOf(next);
+            return !above;
+        }
+    }
+
+    // Pull-mode posts were never fanned out; without this they would vanish from followers' feeds
+    private void backfillFollowers(Long authorId) {
+        int rows = timelineRepository.fanOutRecent(authorId, capacity);
+        log.info("Author {} left pull mode: backfilled {} timeline entries", authorId, rows);
+        afterCommit(() -> {
+            for (long followerId : socialGraph.followerIds(authorId)) hotTimelines.invalidate(followerId);
+        });
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public Set<Long> getPullAuthors() {
+        return pullAuthors;
+    }
+
+    // --- READ PATH ---
+
+    /** Next entries after the cursor, or null when the caller should fall back to the pull query. */
+    List<FeedEntry> getEntries(Long userId, FeedCursor after, int limit) {
+        TimelineRing ring = ring(userId);
+        return after == null
+                ? ring.before(null, null, limit)
+                : ring.before(after.getCreatedAt(), after.getId(), limit);
+    }
+
+    List<FeedEntry> getEntries(Long userId, int offset, int limit) {
+        return ring(userId).slice(offset, limit);
+    }
+
+    // Not computeIfAbsent: changes committed during the load are replayed onto the ring before it is cached
+    private TimelineRing ring(Long userId) {
+        TimelineRing ring = hotTimelines.get(userId);
+        if (ring != null) return ring;
+        long stamp;
+        synchronized (loading) {
+            loading.computeIfAbsent(userId, id -> new Loading()).loaders++;
+            stamp = hotTimelines.stamp();
+        }
+        TimelineRing loaded;
+        try {
+            loaded = loadRing(userId);
+        } catch (RuntimeException e) {
+            synchronized (loading) {
+                leave(userId);
+            }
+            throw e;
+        }
+        // Replay and cache in one critical section: a change arriving in between would find neither
+        synchronized (loading) {
+            Loading changes = leave(userId);
+            for (PostCreatedEvent push : changes.pushes) loaded.add(push.getCreatedAt(), push.getPostId());
+            for (long postId : changes.removals) loaded.remove(postId);
+            TimelineRing raced = hotTimelines.getIfPresent(userId);
+            if (raced != null) return raced;
+            hotTimelines.putIfFresh(userId, loaded, stamp); // not after a follow change invalidated it
+        }
+        return loaded;
+    }
+
+    // Guarded by loading; the last loader of a user drops the entry
+    private Loading leave(Long userId) {
+        Loading changes = loading.get(userId);
+        if (--changes.loaders == 0) loading.remove(userId);
+        return changes;
+    }
+
+    private TimelineRing loadRing(Long userId) {
+        if (!timelineRepository.existsByUserId(userId)) {
+            timelineRepository.rebuild(userId, capacity);
+        }
+        List<TimelineEntryRepository.TimelinePostRef> rows = timelineRepository.findLatest(userId, PageRequest.of(0, capacity));
+        TimelineRing ring = new TimelineRing(capacity);
+        rows.forEach(r -> ring.add(r.getCreatedAt(), r.getPostId()));
+        if (rows.size() == capacity) ring.markTruncated();
+        return ring;
+    }
+
+    // Fan-out only ever appends, so the persisted tier is trimmed back to the ring size periodically
+    @Scheduled(fixedDelayString = "${feed.timeline.trim-interval-ms:3600000}", initialDelay = 60000)
+    public void trimTimelines() {
+        int removed = timelineRepository.trimToCapacity(capacity);
+        if (removed > 0) log.info("Trimmed {} timeline entries", removed);
+    }
+}
@@ -0,0 +1,185 @@
+package com.learning.lms.service;
+
+import com.learning.lms.entity.TrendingScore;
+import com.learning.lms.event.CommentAddedEvent;
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.event.ReactionChangedEvent;
+import com.learning.lms.repository.TrendingScoreRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * "Trending" ranking with forward decay: every engagement adds weight * e^(lambda * (t - EPOCH)),
+ * so older scores never need to be touched again and the order at any moment is the order of the sums.
+ * Sums are kept as natural logs (they would overflow a double within weeks).
+ * Scores only grow, so the top-K set can be maintained exactly on each event; a page is a walk over it.
+ * A deleted post's slot is refilled from the best tracked score outside the top-K.
+ * Snapshotted to trending_scores on an interval and reloaded on startup.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TrendingService {
+
+    static final Instant EPOCH = Instant.parse("2024-01-01T00:00:00Z");
+
+    private static final double W_POST = 1.0;     // a new post starts with one unit so it can surface
+    private static final double W_REACTION = 1.0;
+    private static final double W_COMMENT = 2.0;
+    private static final double W_REPOST = 3.0;
+    private static final double PRUNE_BELOW = Math.log(0.01); // tracked entries worth < 1% of a fresh reaction
+
+    private final TrendingScoreRepository scoreRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${trending.half-life-hours:12}")
+    private double halfLifeHours;
+
+    @Value("${trending.top-k:500}")
+    private int topK;
+
+    @Value("${trending.tracked-max:20000}")
+    private int trackedMax;
+
+    private double lambda; // per second
+
+    private record Ranked(long postId, double logScore) {}
+
+    private static final Comparator<Ranked> BEST_FIRST = Comparator.comparingDouble(Ranked::logScore).reversed()
+            .thenComparing(Comparator.comparingLong(Ranked::postId).reversed());
+
+    // Guarded by this
+    private final Map<Long, Double> scores = new HashMap<>();
+    private final TreeSet<Ranked> top = new TreeSet<>(BEST_FIRST);
+
+    @PostConstruct
+    public void init() {
+        this.lambda = Math.log(2) / (halfLifeHours * 3600);
+    }
+
+    // --- EVENTS (after commit) ---
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        Instant at = Instant.now();
+        bump(event.getPostId(), W_POST, at);
+        if (event.getOriginalPostId() != null) bump(event.getOriginalPostId(), W_REPOST, at);
+    }
+
+    // Only new reactions count; un-reacting or switching type is not engagement
+    @TransactionalEventListener
+    public void onReactionChanged(ReactionChangedEvent event) {
+        if (event.getBefore() == null && event.getAfter() != null) bump(event.getPostId(), W_REACTION, Instant.now());
+    }
+
+    @TransactionalEventListener
+    public void onCommentAdded(CommentAddedEvent event) {
+        bump(event.getPostId(), W_COMMENT, Instant.now());
+    }
+
+    @TransactionalEventListener
+    public synchronized void onPostDeleted(PostDeletedEvent event) {
+        Double old = scores.remove(event.getPostId());
+        if (old != null && top.remove(new Ranked(event.getPostId(), old))) refill();
+    }
+
+    // Everything outside the top-K ranks below it, so the best of the rest takes the free slot; O(tracked), deletes are rare
+    private void refill() {
+        Ranked best = null;
+        for (Map.Entry<Long, Double> e : scores.entrySet()) {
+            Ranked r = new Ranked(e.getKey(), e.getValue());
+            if (top.contains(r)) continue;
+            if (best == null || BEST_FIRST.compare(r, best) < 0) best = r;
+        }
+        if (best != null) top.add(best);
+    }
+
+    synchronized void bump(long postId, double weight, Instant at) {
+        double added = Math.log(weight) + lambda * Duration.between(EPOCH, at).toSeconds();
+        Double old = scores.get(postId);
+        double updated = old == null ? added : logAddExp(old, added);
+        scores.put(postId, updated);
+        if (old != null) top.remove(new Ranked(postId, old));
+        offer(new Ranked(postId, updated));
+    }
+
+    private void offer(Ranked candidate) {
+        if (top.size() < topK) {
+            top.add(candidate);
+        } else if (BEST_FIRST.compare(candidate, top.last()) < 0) {
+            top.add(candidate);
+            top.pollLast();
+        }
+    }
+
+    // ln(e^a + e^b) without leaving log space
+    static double logAddExp(double a, double b) {
+        double max = Math.max(a, b);
+        return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+    }
+
+    // --- READ: O(K) at most ---
+    public synchronized List<Long> page(int page, int size) {
+        List<Long> ids = new ArrayList<>(size);
+        long skip = (long) page * size;
+        for (Ranked r : top) {
+            if (skip-- > 0) continue;
+            ids.add(r.postId());
+            if (ids.size() == size) break;
+        }
+        return ids;
+    }
+
+    // --- SNAPSHOT ---
+    @Scheduled(fixedDelayString = "${trending.snapshot-interval-ms:300000}", initialDelayString = "${trending.snapshot-interval-ms:300000}")
+    public void snapshot() {
+        List<Object[]> rows = new ArrayList<>();
+        synchronized (this) {
+            prune();
+            scores.forEach((postId, logScore) -> rows.add(new Object[]{postId, logScore}));
+        }
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.update("DELETE FROM trending_scores");
+            jdbcTemplate.batchUpdate("INSERT INTO trending_scores (post_id, log_score) VALUES (?, ?)", rows);
+        });
+    }
+
+    // Drop entries that decayed to nothing, then the weakest ones beyond trending.tracked-max (never the top-K)
+    private void prune() {
+        double floor = lambda * Duration.between(EPOCH, Instant.now()).toSeconds() + PRUNE_BELOW;
+        Set<Long> inTop = new HashSet<>();
+        top.forEach(r -> inTop.add(r.postId()));
+        scores.entrySet().removeIf(e -> e.getValue() < floor && !inTop.contains(e.getKey()));
+        if (scores.size() <= trackedMax) return;
+        scores.entrySet().stream()
+                .filter(e -> !inTop.contains(e.getKey()))
+                .sorted(Map.Entry.comparingByValue())
+                .limit(scores.size() - trackedMax)
+                .map(Map.Entry::getKey)
+                .toList()
+                .forEach(scores::remove);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void restore() {
+        for (TrendingScore s : scoreRepository.findAll()) {
+            scores.put(s.getPostId(), s.getLogScore());
+            offer(new Ranked(s.getPostId(), s.getLogScore()));
+        }
+        if (!scores.isEmpty()) log.info("Trending restored {} scores from snapshot", scores.size());
+    }
+}
@@ -0,0 +1,82 @@
+package com.learning.lms.service;
+
+import jakarta.annotation.PostConstruct;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Caps the upload bytes in flight: received by a multipart request but not yet handed to storage.
+ * UploadAdmissionFilter admits a request by its Content-Length before the body is read; the ticket
+ * stays held by every file staged from that request until MediaUploadPipeline has uploaded it.
+ * One request can reserve at most spring.servlet.multipart.max-request-size; larger ones are refused unread.
+ */
+@Service
+public class UploadAdmission {
+
+    public static final String TICKET_ATTRIBUTE = UploadAdmission.class.getName() + ".TICKET";
+
+    @Value("${media.upload.max-in-flight-mb:256}")
+    private int maxInFlightMb;
+
+    @Value("${media.upload.admission-wait-ms:2000}")
+    private long admissionWaitMs;
+
+    @Value("${spring.servlet.multipart.max-request-size:100MB}")
+    private DataSize maxRequestSize;
+
+    private Semaphore permits; // KiB, so 2GB+ budgets still fit in an int
+
+    @PostConstruct
+    public void init() {
+        permits = new Semaphore(maxInFlightMb * 1024, true);
+    }
+
+    /** True when the declared body is larger than any single request may be. */
+    public boolean tooLarge(long contentLength) {
+        return contentLength > maxRequestSize.toBytes();
+    }
+
+    /** Null when the budget stays exhausted for media.upload.admission-wait-ms. */
+    public Ticket admit(long contentLength) throws InterruptedException {
+        // Unknown length (chunked) is charged the largest request allowed; never more than the whole budget
+        long cap = Math.min(maxInFlightMb * 1024L, (maxRequestSize.toBytes() + 1023) / 1024);
+        int kib = (int) (contentLength < 0 ? cap : Math.min(cap, Math.max(1, (contentLength + 1023) / 1024)));
+        return permits.tryAcquire(kib, admissionWaitMs, TimeUnit.MILLISECONDS) ? new Ticket(kib) : null;
+    }
+
+    /** The ticket of the multipart request being handled on this thread, if any. */
+    public Ticket current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) return null;
+        return (Ticket) attributes.getAttribute(TICKET_ATTRIBUTE, RequestAttributes.SCOPE_REQUEST);
+    }
+
+    public long inFlightBytes() {
+        return (maxInFlightMb * 1024L - permits.availablePermits()) * 1024;
+    }
+
+    // Reference-counted: the request holds one reference, each staged file another
+    public final class Ticket {
+        private final int kib;
+        private final AtomicInteger holders = new AtomicInteger(1);
+
+        private Ticket(int kib) {
+            this.kib = kib;
+        }
+
+        public void retain() {
+            holders.incrementAndGet();
+        }
+
+        public void release() {
+            if (holders.decrementAndGet() == 0) permits.release(kib);
+        }
+    }
+}
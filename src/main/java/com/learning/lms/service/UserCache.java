@@ -0,0 +1,126 @@
+package com.learning.lms.service;
+
+import com.learning.lms.entity.User;
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.event.XpAwardedEvent;
+import com.learning.lms.repository.UserRepository;
+import com.learning.lms.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * L1 cache of User rows (badges included) for profile reads and for authenticating every JWT request.
+ * Bounded by entry count and by an estimate of retained heap; looked up by id, or by username through
+ * a small username -> id index. Entries are detached and shared: read-only for callers - code that
+ * modifies a user loads its own copy and invalidates the id afterwards. A load overlapping that
+ * invalidation is not stored (LruCache stamps), and entries expire after a while regardless.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserCache {
+
+    private static final long BASE_BYTES = 600;  // object headers, boxed numbers, role, timestamps, badge set
+    private static final long BADGE_BYTES = 80;
+
+    private final UserRepository userRepository;
+
+    @Value("${user.cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${user.cache.max-heap-mb:16}")
+    private int maxHeapMb;
+
+    @Value("${user.cache.expire-after-write-seconds:300}")
+    private long expireAfterWriteSeconds;
+
+    private LruCache<Long, User> byId;
+    private LruCache<String, Long> idByUsername;
+
+    @PostConstruct
+    public void init() {
+        this.byId = new LruCache<>(maxEntries, maxHeapMb * 1024L * 1024L, UserCache::estimateBytes,
+                Duration.ofSeconds(expireAfterWriteSeconds));
+        this.idByUsername = new LruCache<>(maxEntries);
+    }
+
+    public Optional<User> byId(long userId) {
+        return Optional.ofNullable(byId.computeIfAbsent(userId, id -> userRepository.findById(id).orElse(null)));
+    }
+
+    // The index may still name an id whose username has since changed: only a matching entry is a hit
+    public Optional<User> byUsername(String username) {
+        Long id = idByUsername.get(username);
+        if (id != null) {
+            User cached = byId.get(id);
+            if (cached != null && cached.getUsername().equals(username)) return Optional.of(cached);
+        }
+        // The id is only known after the load, so an invalidate of it during the load is caught by the stamp
+        long stamp = byId.stamp();
+        Optional<User> loaded = userRepository.findByUsername(username);
+        loaded.ifPresent(user -> {
+            if (byId.putIfFresh(user.getId(), user, stamp)) idByUsername.put(username, user.getId());
+        });
+        return loaded;
+    }
+
+    public void invalidate(long userId) {
+        User cached = byId.getIfPresent(userId);
+        byId.invalidate(userId);
+        if (cached != null) idByUsername.invalidate(cached.getUsername());
+    }
+
+    // --- INVALIDATION (after commit) ---
+    @TransactionalEventListener
+    public void onXpAwarded(XpAwardedEvent event) {
+        invalidate(event.getUserId());
+    }
+
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        invalidate(event.getFollowerId());
+        invalidate(event.getTargetUserId());
+    }
+
+    // --- METRICS ---
+    public Map<String, Object> snapshot() {
+        Map<String, Object> out = new LinkedHashMap<>();
+        out.put("entries", byId.size());
+        out.put("estimatedBytes", byId.weight());
+        out.put("maxEntries", maxEntries);
+        out.put("maxBytes", maxHeapMb * 1024L * 1024L);
+        out.put("byIdHitRatio", ratio(byId.hits(), byId.misses()));
+        out.put("byUsernameHitRatio", ratio(idByUsername.hits(), idByUsername.misses()));
+        out.put("hits", byId.hits());
+        out.put("misses", byId.misses());
+        out.put("evictions", byId.evictions());
+        return out;
+    }
+
+    private static double ratio(long hits, long misses) {
+        long total = hits + misses;
+        return total == 0 ? 0 : (double) hits / total;
+    }
+
+    // Strings are counted at two bytes a char (worst case for compact strings)
+    static long estimateBytes(User user) {
+        long bytes = BASE_BYTES;
+        bytes += chars(user.getUsername()) + chars(user.getEmail()) + chars(user.getFirstname()) + chars(user.getLastname())
+                + chars(user.getPassword()) + chars(user.getBio()) + chars(user.getAvatarUrl());
+        if (user.getBadges() != null) {
+            for (String badge : user.getBadges()) bytes += BADGE_BYTES + chars(badge);
+        }
+        return bytes;
+    }
+
+    private static long chars(String s) {
+        return s == null ? 0 : 40 + 2L * s.length();
+    }
+}
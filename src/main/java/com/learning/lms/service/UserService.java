@@ -1,24 +1,22 @@
 package com.learning.lms.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
+import com.learning.lms.dto.LeaderboardEntryDto;
 import com.learning.lms.dto.LoginRequest;
 import com.learning.lms.dto.RegisterRequest;
 import com.learning.lms.dto.UserStatsResponse;
 import com.learning.lms.dto.UserSummaryDto;
 import com.learning.lms.dto.UserUpdateRequest;
 import com.learning.lms.entity.User;
+import com.learning.lms.enums.MediaVariant;
 import com.learning.lms.enums.NotificationType;
-import com.learning.lms.repository.LearningPlanRepository;
-import com.learning.lms.repository.PlanStepRepository;
-import com.learning.lms.repository.SkillPostRepository;
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.event.XpEarnedEvent;
 import com.learning.lms.repository.UserRepository;
-import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Lazy;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Sort;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -32,9 +30,15 @@ import java.util.stream.Collectors;
 public class UserService {
 
     private final UserRepository userRepository;
-    private final SkillPostRepository skillPostRepository;
-    private final LearningPlanRepository learningPlanRepository;
-    private final PlanStepRepository planStepRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final MediaUploadPipeline mediaPipeline;
+    private final MediaBlobService mediaBlobService;
+    private final SocialGraphService socialGraph;
+    private final SuggestionService suggestionService;
+    private final UserStatsService userStatsService;
+    private final LeaderboardService leaderboardService;
+    private final XpLedgerService xpLedger;
+    private final UserCache userCache;
 
     @Autowired
     @Lazy
@@ -44,18 +48,6 @@ public class UserService {
     @Lazy
     private NotificationService notificationService;
 
-    private Cloudinary cloudinary;
-
-    // Initialize Cloudinary with Env Variables
-    @PostConstruct
-    public void init() {
-        Map<String, String> config = new HashMap<>();
-        config.put("cloud_name", System.getenv("CLOUDINARY_CLOUD_NAME"));
-        config.put("api_key", System.getenv("CLOUDINARY_API_KEY"));
-        config.put("api_secret", System.getenv("CLOUDINARY_API_SECRET"));
-        this.cloudinary = new Cloudinary(config);
-    }
-
     @Transactional
     public User processGoogleLogin(String email, String displayName, String photoUrl) {
         return userRepository.findByEmail(email).orElseGet(() -> {
@@ -92,12 +84,17 @@ public class UserService {
         return user;
     }
 
+    // Cached and shared: do not modify the result (writers use loadForUpdate)
     public User getUserById(Long id) {
+        return userCache.byId(id).orElseThrow(() -> new RuntimeException("User not found"));
+    }
+
+    private User loadForUpdate(Long id) {
         return userRepository.findById(id).orElseThrow(() -> new RuntimeException("User not found"));
     }
 
     public User updateUser(Long userId, UserUpdateRequest request) {
-        User user = getUserById(userId);
+        User user = loadForUpdate(userId);
         if (request.getUsername() != null && !request.getUsername().isBlank()) {
             if (!user.getUsername().equals(request.getUsername()) && userRepository.existsByUsername(request.getUsername())) {
                 throw new RuntimeException("Username already taken");
@@ -105,60 +102,64 @@ public class UserService {
             user.setUsername(request.getUsername());
         }
         if (request.getBio() != null) user.setBio(request.getBio());
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userCache.invalidate(userId);
+        return saved;
     }
 
-    // --- UPDATED: CLOUDINARY UPLOAD ---
-    @Transactional
+    // --- AVATAR UPLOAD ---
+    // Not @Transactional: the upload runs on MediaUploadPipeline, the user row is only touched afterwards
     public String uploadAvatar(Long userId, MultipartFile file) {
         try {
-            User user = getUserById(userId);
-
-            // Upload to Cloudinary
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), ObjectUtils.asMap(
-                    "folder", "avatars",
-                    "public_id", "avatar_" + userId + "_" + UUID.randomUUID()
-            ));
-
-            String secureUrl = (String) uploadResult.get("secure_url");
+            getUserById(userId);
+            // Avatars are only ever shown small: link the square derivative, keep the original in the store
+            String secureUrl = mediaPipeline.uploadNow(file, "avatars", "avatar_" + userId + "_" + UUID.randomUUID(),
+                    EnumSet.of(MediaVariant.AVATAR)).urlFor(MediaVariant.AVATAR);
 
+            User user = loadForUpdate(userId);
+            if (user.getAvatarUrl() != null) mediaBlobService.release(List.of(user.getAvatarUrl()));
             user.setAvatarUrl(secureUrl);
             userRepository.save(user);
+            userCache.invalidate(userId);
             return secureUrl;
         } catch (Exception e) {
             throw new RuntimeException("Failed to upload avatar: " + e.getMessage());
         }
     }
 
+    // Edge-level writes: neither user's following/followers collection is ever loaded
     @Transactional
     public void followUser(Long followerId, Long targetUserId) {
         if (followerId.equals(targetUserId)) throw new RuntimeException("You cannot follow yourself");
-        User follower = getUserById(followerId);
-        User target = getUserById(targetUserId);
-        follower.follow(target);
-        userRepository.save(follower);
-        awardXp(followerId, 5);
-        notificationService.createNotification(target, follower, NotificationType.FOLLOW, "started following you.", null);
+        int changed;
+        try {
+            changed = userRepository.insertFollow(followerId, targetUserId);
+        } catch (DataIntegrityViolationException e) {
+            throw new RuntimeException("User not found");
+        }
+        if (changed == 0) return; // already following
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, targetUserId, true));
+        awardXp(followerId, 5, "FOLLOW");
+        // References only: the notification needs the ids, not the rows
+        notificationService.createNotification(userRepository.getReferenceById(targetUserId),
+                userRepository.getReferenceById(followerId), NotificationType.FOLLOW, "started following you.", null);
     }
 
     @Transactional
     public void unfollowUser(Long followerId, Long targetUserId) {
-        User follower = getUserById(followerId);
-        User target = getUserById(targetUserId);
-        follower.unfollow(target);
-        userRepository.save(follower);
+        if (userRepository.deleteFollow(followerId, targetUserId) == 0) return; // was not following
+        eventPublisher.publishEvent(new FollowChangedEvent(followerId, targetUserId, false));
     }
 
     public boolean isFollowing(Long followerId, Long targetUserId) {
-        User follower = getUserById(followerId);
-        User target = getUserById(targetUserId);
-        return follower.getFollowing().contains(target);
+        return socialGraph.isFollowing(followerId, targetUserId);
     }
 
-    @Transactional(readOnly = true)
+    // Ids from the in-memory graph, then one projection query (no User entities, no collections)
     public List<UserSummaryDto> getFollowing(Long userId) {
-        User user = getUserById(userId);
-        return user.getFollowing().stream()
+        List<Long> ids = Arrays.stream(socialGraph.followingIds(userId)).boxed().toList();
+        if (ids.isEmpty()) return new ArrayList<>();
+        return userRepository.findSummariesByIdIn(ids).stream()
                 .map(this::mapToUserDto)
                 .collect(Collectors.toList());
     }
@@ -171,6 +172,18 @@ public class UserService {
                 .collect(Collectors.toList());
     }
 
+    private UserSummaryDto mapToUserDto(UserRepository.UserSummaryView user) {
+        return UserSummaryDto.builder()
+                .id(user.getId())
+                .username(user.getUsername())
+                .firstname(user.getFirstname())
+                .lastname(user.getLastname())
+                .avatarUrl(user.getAvatarUrl())
+                .level(user.getLevel())
+                .xp(user.getXp())
+                .build();
+    }
+
     private UserSummaryDto mapToUserDto(User user) {
         return UserSummaryDto.builder()
                 .id(user.getId())
@@ -182,37 +195,44 @@ public class UserService {
                 .build();
     }
 
-    @Transactional(readOnly = true)
     public UserStatsResponse getUserStats(Long userId) {
-        int postCount = skillPostRepository.countByUserId(userId);
-        int likeCount = skillPostRepository.findByUserIdOrderByCreatedAtDesc(userId).stream().mapToInt(p -> p.getReactions().size()).sum();
-        int planCount = 0;
-        try { planCount = learningPlanRepository.findByUserId(userId).size(); } catch (Exception e) {}
-        int stepsCompleted = 0;
-        try { stepsCompleted = planStepRepository.countCompletedStepsByUserId(userId); } catch (Exception e) {}
-        User user = getUserById(userId);
-        return new UserStatsResponse(postCount, likeCount, planCount, stepsCompleted, user.getFollowers().size(), user.getFollowing().size());
+        return userStatsService.get(userId);
     }
 
-    @Transactional
-    public void awardXp(Long userId, int amount) {
-        User user = getUserById(userId);
-        user.setXp(user.getXp() + amount);
-        int newLevel = (user.getXp() / 100) + 1;
-        if (newLevel > user.getLevel()) user.setLevel(newLevel);
-        if (user.getXp() >= 50 && !user.getBadges().contains("APPRENTICE")) user.getBadges().add("APPRENTICE");
-        if (user.getXp() >= 500 && !user.getBadges().contains("MASTER")) user.getBadges().add("MASTER");
-        if (user.getFollowers().size() >= 5 && !user.getBadges().contains("SOCIALITE")) user.getBadges().add("SOCIALITE");
-        userRepository.save(user);
+    // Queued, not applied: XpAwardQueue adds it (ledger, level, badges) in a background batch after commit
+    public void awardXp(Long userId, int amount, String reason) {
+        eventPublisher.publishEvent(new XpEarnedEvent(userId, amount, reason));
+    }
+
+    // --- LEADERBOARD (in-memory ranking, summary cards) ---
+    public List<LeaderboardEntryDto> getLeaderboard(int page, int size) {
+        return leaderboardService.page(page, size);
+    }
+
+    public LeaderboardEntryDto getMyRank(Long userId) {
+        LeaderboardEntryDto entry = leaderboardService.rankOf(userId);
+        if (entry == null) throw new RuntimeException("User not found");
+        return entry;
+    }
+
+    public List<LeaderboardEntryDto> getLeaderboardAround(Long userId, int radius) {
+        return leaderboardService.around(userId, radius);
+    }
+
+    public List<LeaderboardEntryDto> getWeeklyLeaderboard(int limit) {
+        return xpLedger.topWeek(limit);
     }
 
-    public List<User> getLeaderboard() {
-        return userRepository.findAll(Sort.by("xp").descending());
+    public List<LeaderboardEntryDto> getMonthlyLeaderboard(int limit) {
+        return xpLedger.topMonth(limit);
     }
 
-    public List<User> getSuggestions(Long currentUserId) {
-        List<User> candidates = userRepository.findSuggestedUsers(currentUserId, PageRequest.of(0, 20));
-        Collections.shuffle(candidates);
-        return candidates.stream().limit(5).toList();
+    // Precomputed ranking (SuggestionService), then one projection query for the cards
+    public List<UserSummaryDto> getSuggestions(Long currentUserId) {
+        List<Long> ids = suggestionService.suggestionsFor(currentUserId, 5);
+        if (ids.isEmpty()) return new ArrayList<>();
+        Map<Long, UserSummaryDto> byId = userRepository.findSummariesByIdIn(ids).stream()
+                .collect(Collectors.toMap(UserRepository.UserSummaryView::getId, this::mapToUserDto));
+        return ids.stream().map(byId::get).filter(Objects::nonNull).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,97 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.UserStatsResponse;
+import com.learning.lms.event.FollowChangedEvent;
+import com.learning.lms.event.PlanChangedEvent;
+import com.learning.lms.event.PostCreatedEvent;
+import com.learning.lms.event.PostDeletedEvent;
+import com.learning.lms.event.ReactionChangedEvent;
+import com.learning.lms.util.LruCache;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Profile stats: one query (scalar subqueries over indexed user_id columns, follow counts from _user),
+ * kept in a bounded LRU and dropped after commit of anything that changes them.
+ * Invalidation instead of in-place deltas: a miss is a single round trip, and the next read is exact.
+ * A load overlapping an invalidation of its user is not stored (LruCache stamps); entries also expire
+ * after user.stats.expire-after-write-seconds in case a change publishes no event.
+ */
+@Service
+@RequiredArgsConstructor
+public class UserStatsService {
+
+    private static final String STATS_SQL = "SELECT " +
+            "(SELECT COUNT(*) FROM skill_posts p WHERE p.user_id = u.id AND p.status = 'PUBLISHED'), " +
+            "(SELECT COALESCE(SUM(c.count), 0) FROM post_reaction_counts c JOIN skill_posts p ON p.id = c.post_id WHERE p.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM learning_plans lp WHERE lp.user_id = u.id), " +
+            "(SELECT COUNT(*) FROM plan_steps s JOIN learning_plans lp ON lp.id = s.learning_plan_id WHERE lp.user_id = u.id AND s.completed), " +
+            "u.follower_count, u.following_count " +
+            "FROM _user u WHERE u.id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${user.stats.cache-size:10000}")
+    private int cacheSize;
+
+    @Value("${user.stats.expire-after-write-seconds:300}")
+    private long expireAfterWriteSeconds;
+
+    private LruCache<Long, UserStatsResponse> cache;
+
+    @PostConstruct
+    public void init() {
+        this.cache = new LruCache<>(cacheSize, Duration.ofSeconds(expireAfterWriteSeconds));
+    }
+
+    public UserStatsResponse get(long userId) {
+        UserStatsResponse stats = cache.computeIfAbsent(userId, this::load);
+        if (stats == null) throw new RuntimeException("User not found");
+        return stats;
+    }
+
+    private UserStatsResponse load(long userId) {
+        List<UserStatsResponse> rows = jdbcTemplate.query(STATS_SQL, (rs, i) -> new UserStatsResponse(
+                rs.getInt(1), (int) rs.getLong(2), rs.getInt(3), rs.getInt(4), rs.getInt(5), rs.getInt(6)), userId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    // --- INVALIDATION (after commit) ---
+    @TransactionalEventListener
+    public void onPostCreated(PostCreatedEvent event) {
+        cache.invalidate(event.getAuthorId());
+    }
+
+    @TransactionalEventListener
+    public void onPostDeleted(PostDeletedEvent event) {
+        cache.invalidate(event.getAuthorId());
+    }
+
+    // Switching reaction type leaves the total unchanged
+    @TransactionalEventListener
+    public void onReactionChanged(ReactionChangedEvent event) {
+        if (event.getBefore() == null || event.getAfter() == null) cache.invalidate(event.getAuthorId());
+    }
+
+    @TransactionalEventListener
+    public void onFollowChanged(FollowChangedEvent event) {
+        cache.invalidate(event.getFollowerId());
+        cache.invalidate(event.getTargetUserId());
+    }
+
+    @TransactionalEventListener
+    public void onPlanChanged(PlanChangedEvent event) {
+        cache.invalidate(event.getOwnerId());
+    }
+
+    public void invalidate(long userId) {
+        cache.invalidate(userId);
+    }
+}
@@ -0,0 +1,133 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.XpAwardedEvent;
+import com.learning.lms.event.XpEarnedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * XP grants are applied in the background, off the request path and outside the action's transaction.
+ * A committed XpEarnedEvent only adds to an in-memory (user, reason) total; every flush applies all
+ * pending grants of a chunk of users with one UPDATE ... SET xp = xp + delta (levels in the same
+ * statement) and one ledger statement, then publishes XpAwardedEvent per user (badges: BadgeService).
+ * No user entity is loaded.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class XpAwardQueue {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final XpLedgerService xpLedger;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${xp.queue.batch-size:500}")
+    private int batchSize;
+
+    record Grant(long userId, String reason) {}
+
+    // Guarded by this
+    private Map<Grant, Integer> pending = new HashMap<>();
+
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    // --- ENQUEUE (after the earning action commits; also outside a transaction) ---
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onXpEarned(XpEarnedEvent event) {
+        if (event.getAmount() == 0) return;
+        pending.merge(new Grant(event.getUserId(), event.getReason()), event.getAmount(), Integer::sum);
+    }
+
+    private synchronized Map<Grant, Integer> takePending() {
+        Map<Grant, Integer> taken = pending;
+        pending = new HashMap<>();
+        return taken;
+    }
+
+    // A failed chunk goes back in front of anything that arrived meanwhile (sums commute)
+    private synchronized void requeue(Map<Grant, Integer> grants) {
+        grants.forEach((grant, amount) -> pending.merge(grant, amount, Integer::sum));
+    }
+
+    // --- FLUSH ---
+    @Scheduled(fixedDelayString = "${xp.queue.flush-interval-ms:500}")
+    public void flush() {
+        if (!flushLock.tryLock()) return;
+        try {
+            drainAndWrite();
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void drain() {
+        flushLock.lock();
+        try {
+            if (!drainAndWrite()) log.error("Shutting down with XP grants not applied");
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    private boolean drainAndWrite() {
+        Map<Grant, Integer> batch = takePending();
+        if (batch.isEmpty()) return true;
+
+        // Chunks split by user, so one user's grants are applied together
+        Map<Long, Map<Grant, Integer>> byUser = new LinkedHashMap<>();
+        batch.forEach((grant, amount) -> byUser.computeIfAbsent(grant.userId(), id -> new HashMap<>()).put(grant, amount));
+        List<Map<Grant, Integer>> users = new ArrayList<>(byUser.values());
+
+        boolean ok = true;
+        for (int from = 0; from < users.size(); from += batchSize) {
+            Map<Grant, Integer> chunk = new HashMap<>();
+            users.subList(from, Math.min(from + batchSize, users.size())).forEach(chunk::putAll);
+            try {
+                transactionTemplate.executeWithoutResult(status -> write(chunk));
+            } catch (RuntimeException e) {
+                log.error("XP flush of {} grants failed, re-queued", chunk.size(), e);
+                requeue(chunk);
+                ok = false;
+            }
+        }
+        return ok;
+    }
+
+    private void write(Map<Grant, Integer> chunk) {
+        Map<Long, Integer> totals = new HashMap<>();
+        chunk.forEach((grant, amount) -> totals.merge(grant.userId(), amount, Integer::sum));
+        Long[] ids = totals.keySet().toArray(Long[]::new);
+        Integer[] amounts = Arrays.stream(ids).map(totals::get).toArray(Integer[]::new);
+
+        // Old xp on the right-hand side: the level is recomputed from the new total, never lowered
+        Map<Long, Integer> newXp = new HashMap<>();
+        jdbcTemplate.query("UPDATE _user u SET xp = u.xp + d.amount, level = GREATEST(u.level, (u.xp + d.amount) / 100 + 1) " +
+                        "FROM unnest(?::bigint[], ?::int[]) AS d(id, amount) WHERE u.id = d.id RETURNING u.id, u.xp",
+                rs -> {
+                    newXp.put(rs.getLong(1), rs.getInt(2));
+                }, ids, amounts);
+
+        LocalDateTime at = XpLedgerService.now();
+        List<XpLedgerService.Entry> entries = new ArrayList<>();
+        chunk.forEach((grant, amount) -> {
+            if (newXp.containsKey(grant.userId())) entries.add(new XpLedgerService.Entry(grant.userId(), amount, grant.reason()));
+        });
+        long ledgerSeq = xpLedger.recordAll(entries, at);
+
+        newXp.forEach((userId, xp) -> eventPublisher.publishEvent(new XpAwardedEvent(userId, totals.get(userId), xp, at, ledgerSeq)));
+    }
+}
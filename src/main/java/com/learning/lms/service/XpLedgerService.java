@@ -0,0 +1,179 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.LeaderboardEntryDto;
+import com.learning.lms.event.XpAwardedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.sql.Date;
+import java.sql.Timestamp;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.*;
+
+/**
+ * Every XP grant is appended to xp_events and added to the user's xp_daily row for that UTC day.
+ * "This week" / "this month" leaderboards are rolling sums over the last 7 / 30 daily buckets, kept in
+ * memory: a grant adds to today's bucket and both sums, and a day leaving a window is subtracted from
+ * that window's sums and (for the month) dropped - nothing is ever recomputed from the ledger.
+ * The windows are loaded before the web server starts. A grant committed before the load's snapshot
+ * is already in xp_daily, so its event is skipped by ledger sequence (xp_events ids grow in commit
+ * order: XpAwardQueue is the only writer and flushes one chunk at a time).
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class XpLedgerService implements SmartInitializingSingleton {
+
+    public static final int WEEK_DAYS = 7;
+    public static final int MONTH_DAYS = 30;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final LeaderboardService leaderboardService;
+
+    // Guarded by this; days holds at most MONTH_DAYS buckets, all >= today - (MONTH_DAYS - 1)
+    private final TreeMap<LocalDate, Map<Long, Integer>> days = new TreeMap<>();
+    private final Map<Long, Integer> weekSums = new HashMap<>();
+    private final Map<Long, Integer> monthSums = new HashMap<>();
+    private LocalDate today;
+    private boolean loaded;
+    private long loadedThrough; // highest xp_events id the loaded daily rows include
+
+    private Clock clock = Clock.systemUTC();
+
+    public static LocalDateTime now() {
+        return LocalDateTime.now(ZoneOffset.UTC);
+    }
+
+    record Entry(long userId, int amount, String reason) {}
+
+    // --- LEDGER (inside the awarding transaction) ---
+    // One statement per batch: the event rows and the daily rollups commit or roll back together.
+    // Returns the highest xp_events id written, which the after-commit event carries
+    public long recordAll(List<Entry> entries, LocalDateTime at) {
+        if (entries.isEmpty()) return 0;
+        Long[] userIds = entries.stream().map(Entry::userId).toArray(Long[]::new);
+        Integer[] amounts = entries.stream().map(Entry::amount).toArray(Integer[]::new);
+        String[] reasons = entries.stream().map(Entry::reason).toArray(String[]::new);
+        Long seq = jdbcTemplate.queryForObject("WITH e AS (INSERT INTO xp_events (user_id, amount, reason, created_at) " +
+                        "SELECT g.user_id, g.amount, g.reason, ? FROM unnest(?::bigint[], ?::int[], ?::text[]) AS g(user_id, amount, reason) RETURNING id), " +
+                        "d AS (INSERT INTO xp_daily (user_id, day, xp) " +
+                        "SELECT g.user_id, ?, SUM(g.amount) FROM unnest(?::bigint[], ?::int[]) AS g(user_id, amount) GROUP BY g.user_id " +
+                        "ON CONFLICT (user_id, day) DO UPDATE SET xp = xp_daily.xp + EXCLUDED.xp) " +
+                        "SELECT MAX(id) FROM e", Long.class,
+                Timestamp.valueOf(at), userIds, amounts, reasons, Date.valueOf(at.toLocalDate()), userIds, amounts);
+        return seq == null ? 0 : seq;
+    }
+
+    // --- WINDOWS (after commit) ---
+    @TransactionalEventListener
+    public synchronized void onXpAwarded(XpAwardedEvent event) {
+        if (!loaded) load();
+        if (event.getLedgerSeq() <= loadedThrough) return; // already in the loaded daily rows
+        roll();
+        add(event.getUserId(), event.getAwardedAt().toLocalDate(), event.getAmount());
+    }
+
+    public List<LeaderboardEntryDto> topWeek(int limit) {
+        return leaderboardService.hydrate(top(true, limit));
+    }
+
+    public List<LeaderboardEntryDto> topMonth(int limit) {
+        return leaderboardService.hydrate(top(false, limit));
+    }
+
+    // Partial sort of the window's users: O(n log limit); equal sums share a rank
+    private synchronized List<LeaderboardService.Ranked> top(boolean week, int limit) {
+        if (!loaded) load();
+        roll();
+        Comparator<Map.Entry<Long, Integer>> order = Map.Entry.<Long, Integer>comparingByValue()
+                .thenComparing(Map.Entry.<Long, Integer>comparingByKey().reversed());
+        PriorityQueue<Map.Entry<Long, Integer>> best = new PriorityQueue<>(order);
+        for (Map.Entry<Long, Integer> e : (week ? weekSums : monthSums).entrySet()) {
+            if (e.getValue() <= 0) continue;
+            best.add(e);
+            if (best.size() > limit) best.poll();
+        }
+        List<Map.Entry<Long, Integer>> sorted = new ArrayList<>(best);
+        sorted.sort(order.reversed());
+        List<LeaderboardService.Ranked> out = new ArrayList<>(sorted.size());
+        for (int i = 0; i < sorted.size(); i++) {
+            Map.Entry<Long, Integer> e = sorted.get(i);
+            long rank = i > 0 && e.getValue().equals(sorted.get(i - 1).getValue()) ? out.get(i - 1).rank() : i + 1;
+            out.add(new LeaderboardService.Ranked(e.getKey(), e.getValue(), rank));
+        }
+        return out;
+    }
+
+    /** Consecutive days with XP ending today (or yesterday, so a streak survives until the day is over). */
+    public synchronized int streakDays(long userId) {
+        if (!loaded) load();
+        roll();
+        LocalDate day = today;
+        if (!days.getOrDefault(day, Map.of()).containsKey(userId)) day = day.minusDays(1);
+        int streak = 0;
+        while (days.getOrDefault(day, Map.of()).containsKey(userId)) {
+            streak++;
+            day = day.minusDays(1);
+        }
+        return streak;
+    }
+
+    private void add(long userId, LocalDate day, int amount) {
+        if (day.isBefore(today.minusDays(MONTH_DAYS - 1))) return; // committed just before a rollover
+        days.computeIfAbsent(day, d -> new HashMap<>()).merge(userId, amount, Integer::sum);
+        monthSums.merge(userId, amount, Integer::sum);
+        if (!day.isBefore(today.minusDays(WEEK_DAYS - 1))) weekSums.merge(userId, amount, Integer::sum);
+    }
+
+    // On the first call of a new UTC day: subtract the days that left each window, drop the month's leavers
+    private void roll() {
+        LocalDate now = LocalDate.now(clock);
+        if (!now.isAfter(today)) return;
+        LocalDate oldWeekFloor = today.minusDays(WEEK_DAYS - 1);
+        LocalDate weekFloor = now.minusDays(WEEK_DAYS - 1);
+        LocalDate monthFloor = now.minusDays(MONTH_DAYS - 1);
+        for (Map<Long, Integer> bucket : days.subMap(oldWeekFloor, true, weekFloor, false).values()) {
+            subtract(weekSums, bucket);
+        }
+        Map<LocalDate, Map<Long, Integer>> leaving = days.headMap(monthFloor, false);
+        for (Map<Long, Integer> bucket : leaving.values()) subtract(monthSums, bucket);
+        leaving.clear();
+        today = now;
+    }
+
+    private static void subtract(Map<Long, Integer> sums, Map<Long, Integer> bucket) {
+        bucket.forEach((userId, xp) -> sums.computeIfPresent(userId, (k, sum) -> sum - xp == 0 ? null : sum - xp));
+    }
+
+    public synchronized void removeUser(long userId) {
+        days.values().forEach(bucket -> bucket.remove(userId));
+        weekSums.remove(userId);
+        monthSums.remove(userId);
+    }
+
+    // --- LOAD ---
+    // After every singleton (schema included) is ready, before the web server and the scheduled flushes start
+    @Override
+    public synchronized void afterSingletonsInstantiated() {
+        if (!loaded) load();
+    }
+
+    // One statement, so the ledger sequence and the daily rows come from the same snapshot
+    private void load() {
+        today = LocalDate.now(clock);
+        jdbcTemplate.query("SELECT m.seq, d.user_id, d.day, d.xp FROM (SELECT COALESCE(MAX(id), 0) AS seq FROM xp_events) m " +
+                "LEFT JOIN xp_daily d ON d.day >= ?", rs -> {
+            loadedThrough = rs.getLong(1);
+            if (rs.getObject(2) != null) add(rs.getLong(2), rs.getDate(3).toLocalDate(), rs.getInt(4));
+        }, Date.valueOf(today.minusDays(MONTH_DAYS - 1)));
+        loaded = true;
+        log.info("XP windows loaded: {} users this week, {} this month", weekSums.size(), monthSums.size());
+    }
+}
@@ -0,0 +1,63 @@
+package com.learning.lms.util;
+
+/**
+ * Counts per non-negative int key with O(log n) prefix sums and k-th lookup (binary indexed tree).
+ * Grows by doubling when a key beyond the current capacity is added. Not thread-safe.
+ */
+public class FenwickTree {
+
+    private long[] tree; // 1-based
+    private long total;
+
+    public FenwickTree(int capacity) {
+        this.tree = new long[Integer.highestOneBit(Math.max(2, capacity) - 1) * 2 + 1];
+    }
+
+    public void add(int key, long delta) {
+        if (key + 1 >= tree.length) grow(key + 1);
+        for (int i = key + 1; i < tree.length; i += i & -i) tree[i] += delta;
+        total += delta;
+    }
+
+    /** Sum of counts for keys 0..key. */
+    public long prefix(int key) {
+        long sum = 0;
+        for (int i = Math.min(key + 1, tree.length - 1); i > 0; i -= i & -i) sum += tree[i];
+        return sum;
+    }
+
+    /** Sum of counts for keys above key. */
+    public long above(int key) {
+        return total - prefix(key);
+    }
+
+    public long total() {
+        return total;
+    }
+
+    /** Smallest key whose prefix sum reaches k (1-based); -1 when k exceeds the total. */
+    public int select(long k) {
+        if (k <= 0 || k > total) return -1;
+        int pos = 0;
+        for (int step = Integer.highestOneBit(tree.length - 1); step > 0; step >>= 1) {
+            int next = pos + step;
+            if (next < tree.length && tree[next] < k) {
+                pos = next;
+                k -= tree[next];
+            }
+        }
+        return pos; // pos is the 1-based index of the last key below; as a 0-based key it is the answer
+    }
+
+    // Rebuilt from the point counts: the tree shape depends on its size
+    private void grow(int minSize) {
+        int size = tree.length - 1;
+        long[] counts = new long[size];
+        for (int key = 0; key < size; key++) counts[key] = prefix(key) - (key == 0 ? 0 : prefix(key - 1));
+        int newSize = size;
+        while (newSize < minSize + 1) newSize *= 2;
+        tree = new long[newSize + 1];
+        total = 0;
+        for (int key = 0; key < size; key++) if (counts[key] != 0) add(key, counts[key]);
+    }
+}
@@ -0,0 +1,184 @@
+package com.learning.lms.util;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+/**
+ * Small thread-safe LRU map used for in-process hot tiers.
+ * Deliberately simple (one lock) – entries are few and operations are O(1).
+ * Optionally also bounded by total weight (e.g. estimated bytes): least recently used entries are
+ * evicted until both the entry and the weight limit hold. Optionally entries expire a fixed time
+ * after they were written, as a backstop for a missed invalidation.
+ * Loads run outside the lock; a load that overlaps a put, update or invalidate of its key is returned
+ * to the caller but not stored, so a value read before a change can never replace what that change left.
+ */
+public class LruCache<K, V> {
+
+    private final int maxEntries;
+    private final long maxWeight;
+    private final ToLongFunction<V> weigher;
+    private final long ttlNanos;
+    private final LinkedHashMap<K, Node<V>> map;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+    private long weight; // guarded by this
+
+    // Write generations, guarded by this: a load stamped before the last put / update / invalidate of its
+    // key (or before floor, when the per-key marks were pruned) is stale
+    private final Map<K, Long> touchedAt = new HashMap<>();
+    private long generation;
+    private long floor;
+
+    private record Node<V>(V value, long weight, long writtenAt) {}
+
+    public LruCache(int maxEntries) {
+        this(maxEntries, Long.MAX_VALUE, v -> 0, null);
+    }
+
+    public LruCache(int maxEntries, Duration expireAfterWrite) {
+        this(maxEntries, Long.MAX_VALUE, v -> 0, expireAfterWrite);
+    }
+
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher) {
+        this(maxEntries, maxWeight, weigher, null);
+    }
+
+    public LruCache(int maxEntries, long maxWeight, ToLongFunction<V> weigher, Duration expireAfterWrite) {
+        this.maxEntries = maxEntries;
+        this.maxWeight = maxWeight;
+        this.weigher = weigher;
+        this.ttlNanos = expireAfterWrite == null ? 0 : expireAfterWrite.toNanos();
+        this.map = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    public synchronized V get(K key) {
+        V value = live(key);
+        if (value == null) misses.incrementAndGet(); else hits.incrementAndGet();
+        return value;
+    }
+
+    // Loader runs outside the lock so a slow load never blocks other readers
+    public V computeIfAbsent(K key, Function<K, V> loader) {
+        V value = get(key);
+        if (value != null) return value;
+        long stamp = stamp();
+        V loaded = loader.apply(key);
+        if (loaded == null) return null;
+        synchronized (this) {
+            V raced = live(key);
+            if (raced != null) return raced;
+            if (!isStale(key, stamp)) store(key, loaded);
+            return loaded;
+        }
+    }
+
+    /** Current write generation; pass it to putIfFresh after loading outside the cache. */
+    public synchronized long stamp() {
+        return generation;
+    }
+
+    /** Stores the value unless its key was written or invalidated since the stamp was taken; true if stored. */
+    public synchronized boolean putIfFresh(K key, V value, long stamp) {
+        if (isStale(key, stamp)) return false;
+        store(key, value);
+        return true;
+    }
+
+    public synchronized V getIfPresent(K key) {
+        return live(key);
+    }
+
+    public synchronized void put(K key, V value) {
+        store(key, value);
+        touch(key);
+    }
+
+    // Atomic read-modify-write of a cached entry; a null result removes it. An absent key is left absent,
+    // but a load of it already running is not stored, as it may predate the update
+    public synchronized void computeIfPresent(K key, BiFunction<K, V, V> remapping) {
+        touch(key);
+        V old = live(key);
+        if (old == null) return;
+        V updated = remapping.apply(key, old);
+        if (updated == null) remove(key); else store(key, updated);
+    }
+
+    public synchronized void invalidate(K key) {
+        remove(key);
+        touch(key);
+    }
+
+    public synchronized void invalidateAll() {
+        map.clear();
+        weight = 0;
+        touchedAt.clear();
+        floor = ++generation;
+    }
+
+    public synchronized int size() {
+        return map.size();
+    }
+
+    public synchronized long weight() {
+        return weight;
+    }
+
+    private void touch(K key) {
+        touchedAt.put(key, ++generation);
+        if (touchedAt.size() > maxEntries) {
+            // Forget the per-key marks; loads stamped before now are treated as stale instead
+            touchedAt.clear();
+            floor = generation;
+        }
+    }
+
+    private boolean isStale(K key, long stamp) {
+        return stamp < floor || touchedAt.getOrDefault(key, Long.MIN_VALUE) > stamp;
+    }
+
+    private V live(K key) {
+        Node<V> node = map.get(key);
+        if (node == null) return null;
+        if (ttlNanos > 0 && System.nanoTime() - node.writtenAt() > ttlNanos) {
+            remove(key);
+            return null;
+        }
+        return node.value();
+    }
+
+    private void store(K key, V value) {
+        Node<V> node = new Node<>(value, weigher.applyAsLong(value), System.nanoTime());
+        Node<V> old = map.put(key, node);
+        if (old != null) weight -= old.weight();
+        weight += node.weight();
+        evict();
+    }
+
+    private void remove(K key) {
+        Node<V> old = map.remove(key);
+        if (old != null) weight -= old.weight();
+    }
+
+    private void evict() {
+        Iterator<Map.Entry<K, Node<V>>> eldest = map.entrySet().iterator();
+        while ((map.size() > maxEntries || weight > maxWeight) && eldest.hasNext()) {
+            weight -= eldest.next().getValue().weight();
+            eldest.remove();
+            evictions.incrementAndGet();
+        }
+    }
+
+    public long hits() { return hits.get(); }
+
+    public long misses() { return misses.get(); }
+
+    public long evictions() { return evictions.get(); }
+}
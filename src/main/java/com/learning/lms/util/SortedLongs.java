@@ -0,0 +1,96 @@
+package com.learning.lms.util;
+
+import java.util.Arrays;
+
+/**
+ * Set operations on sorted, duplicate-free long[] (used as immutable adjacency lists).
+ * Writers never modify an array in place: they return a new one, so readers need no lock.
+ */
+public final class SortedLongs {
+
+    public static final long[] EMPTY = new long[0];
+
+    private SortedLongs() {}
+
+    public static boolean contains(long[] set, long value) {
+        return Arrays.binarySearch(set, value) >= 0;
+    }
+
+    /** The same array when value is already present. */
+    public static long[] insert(long[] set, long value) {
+        int at = Arrays.binarySearch(set, value);
+        if (at >= 0) return set;
+        at = -at - 1;
+        long[] next = new long[set.length + 1];
+        System.arraycopy(set, 0, next, 0, at);
+        next[at] = value;
+        System.arraycopy(set, at, next, at + 1, set.length - at);
+        return next;
+    }
+
+    /** The same array when value is absent. */
+    public static long[] remove(long[] set, long value) {
+        int at = Arrays.binarySearch(set, value);
+        if (at < 0) return set;
+        if (set.length == 1) return EMPTY;
+        long[] next = new long[set.length - 1];
+        System.arraycopy(set, 0, next, 0, at);
+        System.arraycopy(set, at + 1, next, at, set.length - at - 1);
+        return next;
+    }
+
+    // Linear merge when sizes are close, binary search of the smaller into the larger when they are not
+    public static int intersectionSize(long[] a, long[] b) {
+        if (a.length > b.length) return intersectionSize(b, a);
+        int count = 0;
+        if ((long) a.length * 16 < b.length) {
+            int from = 0;
+            for (long v : a) {
+                int at = Arrays.binarySearch(b, from, b.length, v);
+                if (at >= 0) { count++; from = at + 1; } else from = -at - 1;
+                if (from == b.length) break;
+            }
+            return count;
+        }
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { count++; i++; j++; }
+        }
+        return count;
+    }
+
+    public static long[] intersection(long[] a, long[] b) {
+        long[] out = new long[Math.min(a.length, b.length)];
+        int n = 0;
+        for (int i = 0, j = 0; i < a.length && j < b.length; ) {
+            if (a[i] < b[j]) i++;
+            else if (a[i] > b[j]) j++;
+            else { out[n++] = a[i]; i++; j++; }
+        }
+        return Arrays.copyOf(out, n);
+    }
+
+    public static long[] union(long[] a, long[] b) {
+        long[] out = new long[a.length + b.length];
+        int i = 0, j = 0, n = 0;
+        while (i < a.length && j < b.length) {
+            if (a[i] < b[j]) out[n++] = a[i++];
+            else if (a[i] > b[j]) out[n++] = b[j++];
+            else { out[n++] = a[i++]; j++; }
+        }
+        while (i < a.length) out[n++] = a[i++];
+        while (j < b.length) out[n++] = b[j++];
+        return Arrays.copyOf(out, n);
+    }
+
+    /** Sorts and removes duplicates; the array may be reused. */
+    public static long[] normalize(long[] values, int length) {
+        Arrays.sort(values, 0, length);
+        int n = 0;
+        for (int i = 0; i < length; i++) {
+            if (n == 0 || values[n - 1] != values[i]) values[n++] = values[i];
+        }
+        return n == values.length ? values : Arrays.copyOf(values, n);
+    }
+}
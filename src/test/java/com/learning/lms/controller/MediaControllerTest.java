@@ -0,0 +1,106 @@
+package com.learning.lms.controller;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MediaControllerTest {
+
+    private static final long SIZE = 1000;
+    private static final MediaController.ByteRange WHOLE = new MediaController.ByteRange(0, SIZE - 1);
+
+    @TempDir
+    Path root;
+
+    private MediaController controller;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        Files.write(root.resolve("clip.mp4"), new byte[(int) SIZE]);
+        controller = new MediaController();
+        ReflectionTestUtils.setField(controller, "rootDir", root.toString());
+        controller.init();
+    }
+
+    // --- parseRange ---
+    @Test
+    void explicitAndOpenEndedRangesAreClampedToTheFile() {
+        assertThat(MediaController.parseRange("bytes=0-99", SIZE)).isEqualTo(new MediaController.ByteRange(0, 99));
+        assertThat(MediaController.parseRange("bytes=990-", SIZE)).isEqualTo(new MediaController.ByteRange(990, 999));
+        assertThat(MediaController.parseRange("bytes=500-5000", SIZE)).isEqualTo(new MediaController.ByteRange(500, 999));
+    }
+
+    @Test
+    void suffixRangeIsTheLastNBytes() {
+        assertThat(MediaController.parseRange("bytes=-100", SIZE)).isEqualTo(new MediaController.ByteRange(900, 999));
+        assertThat(MediaController.parseRange("bytes=-5000", SIZE)).isEqualTo(WHOLE);
+        assertThat(MediaController.parseRange("bytes=-0", SIZE)).isNull();
+        assertThat(MediaController.parseRange("bytes=-10", 0)).isNull();
+    }
+
+    @Test
+    void startAtOrPastTheEndIsUnsatisfiable() {
+        assertThat(MediaController.parseRange("bytes=1000-", SIZE)).isNull();
+        assertThat(MediaController.parseRange("bytes=2000-2100", SIZE)).isNull();
+    }
+
+    @Test
+    void multiRangeIsAnsweredWithTheWholeFile() {
+        assertThat(MediaController.parseRange("bytes=0-1,5-6", SIZE)).isEqualTo(WHOLE);
+    }
+
+    @Test
+    void invalidRangeIsIgnored() {
+        assertThat(MediaController.parseRange("bytes=500-100", SIZE)).isEqualTo(WHOLE);
+        assertThat(MediaController.parseRange("bytes=abc-", SIZE)).isEqualTo(WHOLE);
+        assertThat(MediaController.parseRange("bytes=100", SIZE)).isEqualTo(WHOLE);
+        assertThat(MediaController.parseRange("items=0-1", SIZE)).isEqualTo(WHOLE);
+    }
+
+    // --- serve ---
+    @Test
+    void rangeIsServedAsPartialContent() throws Exception {
+        MockHttpServletResponse response = serve("bytes=-100", null);
+        assertThat(response.getStatus()).isEqualTo(206);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes 900-999/1000");
+        assertThat(response.getContentAsByteArray()).hasSize(100);
+    }
+
+    @Test
+    void unsatisfiableRangeIs416() throws Exception {
+        MockHttpServletResponse response = serve("bytes=1000-", null);
+        assertThat(response.getStatus()).isEqualTo(416);
+        assertThat(response.getHeader("Content-Range")).isEqualTo("bytes */1000");
+    }
+
+    @Test
+    void ifRangeHonoursTheRangeOnlyForTheCurrentEtag() throws Exception {
+        String etag = serve(null, null).getHeader("ETag");
+
+        MockHttpServletResponse current = serve("bytes=0-9", etag);
+        assertThat(current.getStatus()).isEqualTo(206);
+        assertThat(current.getContentAsByteArray()).hasSize(10);
+
+        MockHttpServletResponse stale = serve("bytes=0-9", "\"stale\"");
+        assertThat(stale.getStatus()).isEqualTo(200);
+        assertThat(stale.getHeader("Content-Range")).isNull();
+        assertThat(stale.getContentAsByteArray()).hasSize((int) SIZE);
+    }
+
+    private MockHttpServletResponse serve(String range, String ifRange) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/uploads/clip.mp4");
+        if (range != null) request.addHeader("Range", range);
+        if (ifRange != null) request.addHeader("If-Range", ifRange);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        controller.serve(request, response);
+        return response;
+    }
+}
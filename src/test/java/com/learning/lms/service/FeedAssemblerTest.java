@@ -0,0 +1,177 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.FeedItemDto;
+import com.learning.lms.dto.ReactionSummaryDto;
+import com.learning.lms.enums.MediaVariant;
+import com.learning.lms.enums.ReactionType;
+import com.learning.lms.repository.CommentRepository;
+import com.learning.lms.repository.LearningPlanRepository;
+import com.learning.lms.repository.SkillPostRepository;
+import com.learning.lms.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.data.projection.ProjectionFactory;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class FeedAssemblerTest {
+
+    private static final long REPOSTED_ID = 1000L;
+    private final ProjectionFactory projections = new SpelAwareProxyProjectionFactory();
+
+    @Mock private SkillPostRepository postRepository;
+    @Mock private CommentRepository commentRepository;
+    @Mock private UserRepository userRepository;
+    @Mock private LearningPlanRepository learningPlanRepository;
+    @Mock private ReactionCounterService reactionCounterService;
+    @Mock private ImageDerivativeService derivativeService;
+
+    private FeedAssembler assembler;
+
+    @BeforeEach
+    void setUp() {
+        CommentPreviewCache previewCache = new CommentPreviewCache(commentRepository);
+        ReflectionTestUtils.setField(previewCache, "previewSize", 3);
+        ReflectionTestUtils.setField(previewCache, "cacheSize", 100);
+        previewCache.init();
+        assembler = new FeedAssembler(postRepository, previewCache, userRepository, learningPlanRepository,
+                reactionCounterService, derivativeService);
+
+        // Every post has a plan, media, comments and reposts the same original
+        when(postRepository.findFeedRows(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> feedRow(id, id == REPOSTED_ID ? null : REPOSTED_ID)).toList();
+        });
+        when(postRepository.findMediaByPostIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> projection(SkillPostRepository.MediaRow.class,
+                    Map.of("postId", id, "mediaUrl", "https://cdn/" + id + ".jpg"))).toList();
+        });
+        when(derivativeService.lookup(anyCollection())).thenReturn(Map.of(
+                "https://cdn/3.jpg", Map.of(MediaVariant.FEED, "https://cdn/3_feed.jpg")));
+        when(postRepository.countReposts(anyCollection())).thenReturn(List.of());
+        when(commentRepository.findLatestByPostIds(anyCollection(), anyInt())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> projection(CommentRepository.CommentRow.class, Map.of(
+                    "id", id * 10, "content", "nice", "createdAt", LocalDateTime.now(), "postId", id, "userId", 7L))).toList();
+        });
+        when(commentRepository.countByPostIds(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> projection(CommentRepository.CommentCount.class,
+                    Map.of("postId", id, "count", 42L))).toList();
+        });
+        when(userRepository.findSummariesByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> projection(UserRepository.UserSummaryView.class,
+                    Map.of("id", id, "username", "user" + id, "level", 1))).toList();
+        });
+        when(learningPlanRepository.findTitlesByIdIn(anyCollection())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            return ids.stream().map(id -> projection(LearningPlanRepository.PlanTitle.class,
+                    Map.of("id", id, "title", "Plan " + id))).toList();
+        });
+        when(reactionCounterService.summaries(anyCollection(), any())).thenAnswer(inv -> {
+            Collection<Long> ids = inv.getArgument(0);
+            Map<Long, ReactionSummaryDto> summaries = new HashMap<>();
+            ids.forEach(id -> summaries.put(id, new ReactionSummaryDto(id, ReactionType.LIKE, Map.of(ReactionType.LIKE, 5L))));
+            return summaries;
+        });
+    }
+
+    @ParameterizedTest
+    @ValueSource(ints = {1, 10, 50})
+    void queryCountDoesNotDependOnPageSize(int pageSize) {
+        List<FeedItemDto> page = assembler.assemble(ids(pageSize), 99L);
+
+        assertThat(page).hasSize(pageSize);
+        verify(postRepository, times(2)).findFeedRows(anyCollection()); // page + originals
+        verify(postRepository, times(1)).findMediaByPostIds(anyCollection());
+        verify(postRepository, times(1)).countReposts(anyCollection());
+        verify(derivativeService, times(1)).lookup(anyCollection());
+        verify(commentRepository, times(1)).findLatestByPostIds(anyCollection(), eq(3));
+        verify(commentRepository, times(1)).countByPostIds(anyCollection());
+        verify(userRepository, times(1)).findSummariesByIdIn(anyCollection());
+        verify(learningPlanRepository, times(1)).findTitlesByIdIn(anyCollection());
+        verify(reactionCounterService, times(1)).summaries(anyCollection(), eq(99L));
+        verifyNoMoreInteractions(postRepository, commentRepository, userRepository, learningPlanRepository,
+                reactionCounterService, derivativeService);
+    }
+
+    @Test
+    void commentPreviewsAreServedFromCacheOnTheNextPage() {
+        assembler.assemble(ids(10), null);
+        assembler.assemble(ids(10), null);
+
+        verify(commentRepository, times(1)).findLatestByPostIds(anyCollection(), anyInt());
+        verify(commentRepository, times(1)).countByPostIds(anyCollection());
+    }
+
+    @Test
+    void keepsRequestedOrderAndFillsEveryPart() {
+        List<Long> ids = List.of(3L, 1L, 2L);
+
+        List<FeedItemDto> page = assembler.assemble(ids, null);
+
+        assertThat(page).extracting(FeedItemDto::getId).containsExactly(3L, 1L, 2L);
+        FeedItemDto first = page.get(0);
+        assertThat(first.getUser().getUsername()).isEqualTo("user103");
+        assertThat(first.getMediaUrls()).containsExactly("https://cdn/3.jpg");
+        assertThat(first.getPreviewUrls()).containsExactly("https://cdn/3_feed.jpg");
+        assertThat(first.getThumbUrls()).containsExactly("https://cdn/3.jpg"); // no thumbnail: the original
+        assertThat(first.getLearningPlanTitle()).isEqualTo("Plan 503");
+        assertThat(first.getCommentCount()).isEqualTo(42L);
+        assertThat(first.getComments()).singleElement().satisfies(c -> assertThat(c.getUser().getUsername()).isEqualTo("user7"));
+        assertThat(first.getReactionCounts()).containsEntry(ReactionType.LIKE, 5L);
+        assertThat(first.getOriginalPost().getId()).isEqualTo(REPOSTED_ID);
+        assertThat(first.getOriginalPost().getUser().getUsername()).isEqualTo("user1100");
+        assertThat(first.getOriginalPost().getMediaUrls()).containsExactly("https://cdn/1000.jpg");
+    }
+
+    @Test
+    void skipsDeletedPostsAndQueriesNothingForAnEmptyPage() {
+        when(postRepository.findFeedRows(anyCollection())).thenReturn(List.of());
+
+        assertThat(assembler.assemble(List.of(5L), null)).isEmpty();
+
+        Mockito.reset(postRepository);
+        assertThat(assembler.assemble(List.of(), null)).isEmpty();
+        verifyNoInteractions(postRepository);
+    }
+
+    private List<Long> ids(int count) {
+        return LongStream.rangeClosed(1, count).boxed().toList();
+    }
+
+    private SkillPostRepository.FeedRow feedRow(long id, Long originalId) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("id", id);
+        row.put("description", "post " + id);
+        row.put("createdAt", LocalDateTime.now());
+        row.put("userId", 100 + id);
+        row.put("learningPlanId", 500 + id);
+        row.put("originalPostId", originalId);
+        return projection(SkillPostRepository.FeedRow.class, row);
+    }
+
+    private <T> T projection(Class<T> type, Map<String, Object> values) {
+        return projections.createProjection(type, new HashMap<>(values));
+    }
+}
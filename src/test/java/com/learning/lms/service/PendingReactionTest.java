@@ -0,0 +1,85 @@
+package com.learning.lms.service;
+
+import com.learning.lms.enums.ReactionType;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PendingReactionTest {
+
+    private static final List<ReactionType> STATES = states();
+
+    private static List<ReactionType> states() {
+        List<ReactionType> states = new ArrayList<>(Arrays.asList(ReactionType.values()));
+        states.add(null);
+        return states;
+    }
+
+    @Test
+    void singleToggleAddsRemovesOrSwitches() {
+        PendingReaction like = PendingReaction.of(ReactionType.LIKE);
+        assertThat(like.resolve(null)).isEqualTo(ReactionType.LIKE);
+        assertThat(like.resolve(ReactionType.LIKE)).isNull();
+        assertThat(like.resolve(ReactionType.LOVE)).isEqualTo(ReactionType.LIKE);
+    }
+
+    // Folding any toggle sequence must equal replaying it one click at a time, whatever is persisted
+    @Test
+    void foldedTogglesMatchReplayForEverySequenceUpToFour() {
+        for (List<ReactionType> clicks : sequences(4)) {
+            PendingReaction folded = PendingReaction.of(clicks.get(0));
+            for (ReactionType click : clicks.subList(1, clicks.size())) folded = folded.toggle(click);
+            for (ReactionType persisted : STATES) {
+                assertThat(folded.resolve(persisted)).as("%s on %s", clicks, persisted).isEqualTo(replay(persisted, clicks));
+            }
+        }
+    }
+
+    @Test
+    void thenComposesInOrder() {
+        for (List<ReactionType> first : sequences(2)) {
+            for (List<ReactionType> later : sequences(2)) {
+                PendingReaction composed = fold(first).then(fold(later));
+                List<ReactionType> all = new ArrayList<>(first);
+                all.addAll(later);
+                for (ReactionType persisted : STATES) {
+                    assertThat(composed.resolve(persisted)).as("%s then %s on %s", first, later, persisted)
+                            .isEqualTo(replay(persisted, all));
+                }
+            }
+        }
+    }
+
+    private static PendingReaction fold(List<ReactionType> clicks) {
+        PendingReaction folded = PendingReaction.of(clicks.get(0));
+        for (ReactionType click : clicks.subList(1, clicks.size())) folded = folded.toggle(click);
+        return folded;
+    }
+
+    private static ReactionType replay(ReactionType state, List<ReactionType> clicks) {
+        for (ReactionType click : clicks) state = PendingReaction.toggle(state, click);
+        return state;
+    }
+
+    private static List<List<ReactionType>> sequences(int maxLength) {
+        List<List<ReactionType>> out = new ArrayList<>();
+        List<List<ReactionType>> current = List.of(List.of());
+        for (int length = 1; length <= maxLength; length++) {
+            List<List<ReactionType>> next = new ArrayList<>();
+            for (List<ReactionType> prefix : current) {
+                for (ReactionType type : ReactionType.values()) {
+                    List<ReactionType> sequence = new ArrayList<>(prefix);
+                    sequence.add(type);
+                    next.add(sequence);
+                }
+            }
+            out.addAll(next);
+            current = next;
+        }
+        return out;
+    }
+}
@@ -0,0 +1,194 @@
+package com.learning.lms.service;
+
+import com.learning.lms.dto.ReactionSummaryDto;
+import com.learning.lms.enums.ReactionType;
+import com.learning.lms.event.ReactionChangedEvent;
+import com.learning.lms.repository.DataBackfillRepository;
+import com.learning.lms.repository.PostReactionCountRepository;
+import com.learning.lms.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.quality.Strictness;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.CannotCreateTransactionException;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class ReactionWriteBufferTest {
+
+    private static final long USER = 7L;
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private TransactionTemplate transactionTemplate;
+    @Mock private NotificationService notificationService;
+    @Mock private UserRepository userRepository;
+    @Mock private ApplicationEventPublisher eventPublisher;
+    @Mock private PostReactionCountRepository countRepository;
+    @Mock private DataBackfillRepository backfillRepository;
+
+    private ReactionWriteBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        buffer = new ReactionWriteBuffer(jdbcTemplate, transactionTemplate, notificationService, userRepository, eventPublisher);
+        ReflectionTestUtils.setField(buffer, "maxPending", 10_000);
+        ReflectionTestUtils.setField(buffer, "batchSize", 500);
+        ReflectionTestUtils.setField(buffer, "maxAttempts", 3);
+        doAnswer(ReactionWriteBufferTest::commit).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    // A committing transaction: run the callback, then the after-commit callbacks in their order
+    private static Object commit(InvocationOnMock inv) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        return null;
+    }
+
+    // The first statement of write(): locks the chunk's persisted rows
+    private void onChunk(Consumer<Long[]> action) {
+        doAnswer(inv -> {
+            action.accept(inv.getArgument(2));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT r.post_id"), any(RowCallbackHandler.class), any(), any());
+    }
+
+    @Test
+    void committedChunkIsNoLongerOverlaidWhileLaterChunksFlush() {
+        ReflectionTestUtils.setField(buffer, "batchSize", 1);
+        buffer.toggle(1L, USER, ReactionType.LIKE);
+        buffer.toggle(2L, USER, ReactionType.LIKE);
+        List<Set<Long>> visibleDuringChunk = new ArrayList<>();
+        onChunk(postIds -> {
+            Set<Long> visible = new HashSet<>();
+            for (long postId : List.of(1L, 2L)) if (buffer.pendingFor(postId, USER) != null) visible.add(postId);
+            visibleDuringChunk.add(visible);
+        });
+
+        buffer.flush();
+
+        assertThat(visibleDuringChunk).hasSize(2);
+        assertThat(visibleDuringChunk.get(0)).containsExactlyInAnyOrder(1L, 2L);
+        assertThat(visibleDuringChunk.get(1)).hasSize(1); // only the chunk being written
+        assertThat(buffer.pendingFor(1L, USER)).isNull();
+        assertThat(buffer.pendingFor(2L, USER)).isNull();
+    }
+
+    @Test
+    void requeuedChunkIsNotOverlaidTwiceWhileLaterChunksFlush() {
+        ReflectionTestUtils.setField(buffer, "batchSize", 1);
+        doThrow(new CannotCreateTransactionException("connection refused"))
+                .doAnswer(ReactionWriteBufferTest::commit)
+                .when(transactionTemplate).executeWithoutResult(any());
+        buffer.toggle(1L, USER, ReactionType.LIKE);
+        buffer.toggle(2L, USER, ReactionType.LIKE);
+        List<ReactionType> requeuedSeenAs = new ArrayList<>();
+        onChunk(postIds -> {
+            long other = postIds[0] == 1L ? 2L : 1L;
+            requeuedSeenAs.add(buffer.pendingFor(other, USER).resolve(null));
+        });
+
+        buffer.flush();
+
+        assertThat(requeuedSeenAs).containsExactly(ReactionType.LIKE); // applied twice it would read as removed
+    }
+
+    @Test
+    void failedFlushRequeuesAndKeepsLaterTogglesAfterIt() {
+        doAnswer(inv -> {
+            buffer.toggle(1L, USER, ReactionType.LOVE); // clicked while the failing flush runs
+            throw new CannotCreateTransactionException("connection refused");
+        }).when(transactionTemplate).executeWithoutResult(any());
+        buffer.toggle(1L, USER, ReactionType.LIKE);
+
+        buffer.flush();
+
+        PendingReaction pending = buffer.pendingFor(1L, USER);
+        assertThat(pending.resolve(null)).isEqualTo(ReactionType.LOVE);
+        assertThat(pending.resolve(ReactionType.LIKE)).isEqualTo(ReactionType.LOVE); // LIKE, then LOVE: not the reverse
+    }
+
+    @Test
+    void constraintFailureHoldsBackOnlyThePoisonedToggleAndDropsItAfterMaxAttempts() {
+        List<List<Long>> chunks = new ArrayList<>();
+        onChunk(postIds -> {
+            chunks.add(List.of(postIds));
+            if (Arrays.asList(postIds).contains(2L)) throw new DataIntegrityViolationException("fk_user");
+        });
+        buffer.toggle(1L, USER, ReactionType.LIKE);
+        buffer.toggle(2L, USER, ReactionType.LIKE);
+        buffer.toggle(3L, USER, ReactionType.LIKE);
+
+        buffer.flush();
+        assertThat(buffer.pendingFor(1L, USER)).isNull();
+        assertThat(buffer.pendingFor(3L, USER)).isNull();
+        assertThat(buffer.pendingFor(2L, USER)).isNotNull();
+
+        chunks.clear();
+        buffer.toggle(4L, USER, ReactionType.LIKE);
+        buffer.flush();
+        assertThat(chunks).contains(List.of(2L), List.of(4L)); // the suspect is written alone
+        assertThat(buffer.pendingFor(2L, USER)).isNotNull();
+
+        buffer.flush();
+        assertThat(buffer.pendingFor(2L, USER)).isNull(); // third failed attempt: dropped
+        chunks.clear();
+        buffer.flush();
+        assertThat(chunks).isEmpty();
+    }
+
+    @Test
+    void reactIsAnsweredFromCachedStatePlusPendingToggles() {
+        ReactionCounterService counters = new ReactionCounterService(countRepository, buffer, backfillRepository, transactionTemplate);
+        ReflectionTestUtils.setField(counters, "postCacheSize", 100);
+        ReflectionTestUtils.setField(counters, "viewerCacheSize", 100);
+        counters.init();
+        when(countRepository.findState(1L, USER)).thenReturn(List.of(state("LIKE", 3L, "LIKE")));
+
+        ReactionSummaryDto removed = counters.toggle(1L, USER, ReactionType.LIKE);
+        assertThat(removed.getMyReaction()).isNull();
+        assertThat(removed.getReactionCounts()).containsEntry(ReactionType.LIKE, 2L);
+
+        // The flush commits the removal: in-flight is retired first, then the cache catches up
+        buffer.flush();
+        counters.onReactionChanged(new ReactionChangedEvent(1L, 5L, USER, ReactionType.LIKE, null));
+
+        ReactionSummaryDto again = counters.toggle(1L, USER, ReactionType.LIKE);
+        assertThat(again.getMyReaction()).isEqualTo(ReactionType.LIKE);
+        assertThat(again.getReactionCounts()).containsEntry(ReactionType.LIKE, 3L);
+        verify(countRepository, times(1)).findState(anyLong(), anyLong());
+    }
+
+    private static PostReactionCountRepository.PostReactionState state(String type, Long count, String mine) {
+        Map<String, Object> values = new HashMap<>();
+        values.put("reactionType", type);
+        values.put("count", count);
+        values.put("mine", mine);
+        return new SpelAwareProxyProjectionFactory().createProjection(PostReactionCountRepository.PostReactionState.class, values);
+    }
+}
@@ -0,0 +1,121 @@
+package com.learning.lms.service;
+
+import com.learning.lms.event.XpAwardedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class XpLedgerServiceTest {
+
+    private static final long USER = 7L;
+    private static final LocalDate DAY = LocalDate.of(2024, 3, 10);
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private LeaderboardService leaderboardService;
+
+    private XpLedgerService ledger;
+    private long seq;
+
+    @BeforeEach
+    void setUp() {
+        ledger = new XpLedgerService(jdbcTemplate, leaderboardService);
+        setToday(DAY);
+    }
+
+    private void setToday(LocalDate day) {
+        ReflectionTestUtils.setField(ledger, "clock", Clock.fixed(day.atStartOfDay().toInstant(ZoneOffset.UTC), ZoneOffset.UTC));
+    }
+
+    private void grant(LocalDate day, int amount) {
+        ledger.onXpAwarded(new XpAwardedEvent(USER, amount, 0, day.atTime(12, 0), ++seq));
+    }
+
+    @SuppressWarnings("unchecked")
+    private Integer sum(String window) {
+        ledger.streakDays(USER); // rolls to the clock's day
+        return ((Map<Long, Integer>) ReflectionTestUtils.getField(ledger, window)).get(USER);
+    }
+
+    @Test
+    void daysLeaveEachWindowOnTheDayTheyFallOutOfIt() {
+        ledger.afterSingletonsInstantiated();
+        grant(DAY.minusDays(29), 1);
+        grant(DAY.minusDays(6), 10);
+        grant(DAY, 100);
+        assertThat(sum("weekSums")).isEqualTo(110);
+        assertThat(sum("monthSums")).isEqualTo(111);
+
+        setToday(DAY.plusDays(1));
+        assertThat(sum("weekSums")).isEqualTo(100);
+        assertThat(sum("monthSums")).isEqualTo(110);
+
+        setToday(DAY.plusDays(7));
+        assertThat(sum("weekSums")).isNull();
+        assertThat(sum("monthSums")).isEqualTo(110);
+
+        setToday(DAY.plusDays(23));
+        assertThat(sum("monthSums")).isEqualTo(110);
+        setToday(DAY.plusDays(24));
+        assertThat(sum("monthSums")).isEqualTo(100);
+
+        setToday(DAY.plusDays(30));
+        assertThat(sum("monthSums")).isNull();
+    }
+
+    // A jump over several days subtracts every day that left, and each only once
+    @Test
+    void multiDayJumpSubtractsEachLeavingDayOnce() {
+        ledger.afterSingletonsInstantiated();
+        for (int back = 0; back < 30; back++) grant(DAY.minusDays(back), 1);
+        assertThat(sum("weekSums")).isEqualTo(7);
+        assertThat(sum("monthSums")).isEqualTo(30);
+
+        setToday(DAY.plusDays(3));
+        assertThat(sum("weekSums")).isEqualTo(4);
+        assertThat(sum("monthSums")).isEqualTo(27);
+
+        setToday(DAY.plusDays(10));
+        assertThat(sum("weekSums")).isNull();
+        assertThat(sum("monthSums")).isEqualTo(20);
+    }
+
+    @Test
+    void grantAlreadyInTheLoadedRowsIsNotCountedAgain() throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getLong(1)).thenReturn(5L);
+        when(rs.getObject(2)).thenReturn(USER);
+        when(rs.getLong(2)).thenReturn(USER);
+        when(rs.getDate(3)).thenReturn(Date.valueOf(DAY));
+        when(rs.getInt(4)).thenReturn(10);
+        doAnswer(inv -> {
+            inv.<RowCallbackHandler>getArgument(1).processRow(rs);
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT m.seq"), any(RowCallbackHandler.class), any(Object[].class));
+
+        ledger.afterSingletonsInstantiated();
+        ledger.onXpAwarded(new XpAwardedEvent(USER, 10, 0, DAY.atTime(9, 0), 5L)); // committed before the load
+        ledger.onXpAwarded(new XpAwardedEvent(USER, 3, 0, DAY.atTime(10, 0), 6L));
+
+        assertThat(sum("weekSums")).isEqualTo(13);
+    }
+}